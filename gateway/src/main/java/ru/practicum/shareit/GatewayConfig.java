@@ -1,15 +1,149 @@
 package ru.practicum.shareit;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.client.RestTemplateBuilderConfigurer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.client.AsyncServerClient;
+import ru.practicum.shareit.client.ServerHttpClientProperties;
+
+import java.util.function.ToIntFunction;
 
 @Configuration
+@EnableConfigurationProperties(ServerHttpClientProperties.class)
 public class GatewayConfig {
+    private static final String ASYNC_MODE_PROPERTY = "shareit-server.http.async";
 
     @Bean
     public RestTemplate restTemplate(RestTemplateBuilder builder) {
         return builder.build();
     }
-}
\ No newline at end of file
+
+    @Bean
+    public RestTemplateBuilder restTemplateBuilder(RestTemplateBuilderConfigurer configurer,
+                                                   CloseableHttpClient serverHttpClient) {
+        return configurer.configure(new RestTemplateBuilder())
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient));
+    }
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager serverConnectionManager(ServerHttpClientProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(connectionConfig(properties))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient serverHttpClient(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                ServerHttpClientProperties properties) {
+        return HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .setDefaultRequestConfig(requestConfig(properties))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEvictTimeout()))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = ASYNC_MODE_PROPERTY, havingValue = "true")
+    public PoolingAsyncClientConnectionManager serverAsyncConnectionManager(ServerHttpClientProperties properties) {
+        return PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(connectionConfig(properties))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = ASYNC_MODE_PROPERTY, havingValue = "true")
+    public CloseableHttpAsyncClient serverAsyncHttpClient(PoolingAsyncClientConnectionManager serverAsyncConnectionManager,
+                                                          ServerHttpClientProperties properties) {
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(serverAsyncConnectionManager)
+                .setDefaultRequestConfig(requestConfig(properties))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleEvictTimeout()))
+                .build();
+        client.start();
+        return client;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = ASYNC_MODE_PROPERTY, havingValue = "true")
+    public AsyncServerClient asyncServerClient(CloseableHttpAsyncClient serverAsyncHttpClient, ObjectMapper objectMapper,
+                                               ServerHttpClientProperties properties) {
+        return new AsyncServerClient(serverAsyncHttpClient, objectMapper, properties.isPassThrough());
+    }
+
+    @Bean
+    public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+        return registry -> registerPoolGauges(registry, serverConnectionManager, "blocking");
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = ASYNC_MODE_PROPERTY, havingValue = "true")
+    public MeterBinder serverAsyncConnectionPoolMetrics(PoolingAsyncClientConnectionManager serverAsyncConnectionManager) {
+        return registry -> registerPoolGauges(registry, serverAsyncConnectionManager, "async");
+    }
+
+    private static ConnectionConfig connectionConfig(ServerHttpClientProperties properties) {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                .build();
+    }
+
+    private static RequestConfig requestConfig(ServerHttpClientProperties properties) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.getConnectionRequestTimeout()))
+                .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                .setConnectionKeepAlive(TimeValue.of(properties.getKeepAlive()))
+                .build();
+    }
+
+    private static void registerPoolGauges(MeterRegistry registry, ConnPoolControl<HttpRoute> pool, String transport) {
+        registerPoolGauge(registry, pool, transport, "leased", PoolStats::getLeased);
+        registerPoolGauge(registry, pool, transport, "available", PoolStats::getAvailable);
+        registerPoolGauge(registry, pool, transport, "pending", PoolStats::getPending);
+        registerPoolGauge(registry, pool, transport, "max", PoolStats::getMax);
+    }
+
+    private static void registerPoolGauge(MeterRegistry registry,
+                                          ConnPoolControl<HttpRoute> pool,
+                                          String transport,
+                                          String state,
+                                          ToIntFunction<PoolStats> stat) {
+        Gauge.builder("shareit.gateway.http.pool.connections", pool,
+                        p -> stat.applyAsInt(p.getTotalStats()))
+                .tag("transport", transport)
+                .tag("state", state)
+                .description("Пул HTTP-соединений gateway -> server")
+                .register(registry);
+    }
+}
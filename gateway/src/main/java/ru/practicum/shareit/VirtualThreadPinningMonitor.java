@@ -0,0 +1,63 @@
+package ru.practicum.shareit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final Timer pinnedTimer;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(@Value("${shareit.virtual-threads.pinned-threshold:20ms}") Duration threshold,
+                                       MeterRegistry registry) {
+        this.threshold = threshold;
+        this.pinnedTimer = Timer.builder("shareit.virtual-threads.pinned")
+                .description("Блокировки виртуальных потоков, закреплённых на потоке-носителе")
+                .register(registry);
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold);
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Gateway: мониторинг закрепления виртуальных потоков включён, порог {}", threshold);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedTimer.record(event.getDuration());
+        RecordedThread thread = event.getThread();
+        log.warn("Gateway: виртуальный поток {} закреплён на {} мс",
+                thread == null ? "?" : thread.getJavaName(), event.getDuration().toMillis());
+    }
+}
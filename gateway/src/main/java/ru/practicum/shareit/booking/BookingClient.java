@@ -1,53 +1,83 @@
 package ru.practicum.shareit.booking;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerHttpClientProperties;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Component
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ServerHttpClientProperties properties, ObjectProvider<AsyncServerClient> asyncClient,
+                         MeterRegistry registry) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .build());
+                .build(), properties, asyncClient.getIfAvailable(), registry);
     }
 
-    public ResponseEntity<Object> createBooking(BookingRequestDTO bookingRequestDTO, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> createBooking(BookingRequestDTO bookingRequestDTO, long userId) {
         return post("", userId, bookingRequestDTO);
     }
 
-    public ResponseEntity<Object> getBookingById(long bookingId, long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(long bookingId, long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllBookings(long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = new HashMap<>();
-        parameters.put("state", state);
-        if (from != null) parameters.put("from", from);
-        if (size != null) parameters.put("size", size);
+    public CompletableFuture<ResponseEntity<Object>> getAllBookings(long userId, String state, @Nullable String cursor,
+                                                                    int size) {
+        return getPage("", userId, state, cursor, size);
+    }
 
-        return get("", userId, parameters);
+    public CompletableFuture<ResponseEntity<Object>> getBookingsByOwner(long userId, String state, @Nullable String cursor,
+                                                                        int size) {
+        return getPage("/owner", userId, state, cursor, size);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long userId, String state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state,
-                "from", from,
-                "size", size
-        );
-        return get("/owner", userId, parameters);
+    public CompletableFuture<ResponseEntity<Object>> getBookingStats(long userId) {
+        return get("/stats", userId);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getOwnerBookingStats(long userId) {
+        return get("/owner/stats", userId);
     }
 
-    public ResponseEntity<Object> approveBooking(long bookingId, long userId, boolean approved) {
+    private CompletableFuture<ResponseEntity<Object>> getPage(String path, long userId, String state,
+                                                              @Nullable String cursor, int size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state);
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get(path + "?state={state}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get(path + "?state={state}&size={size}&cursor={cursor}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(long bookingId, long userId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
+
+    public CompletableFuture<ResponseEntity<Object>> approveBookings(List<Long> ids, long userId, boolean approved) {
+        Map<String, Object> parameters = Map.of(
+                "ids", ids.stream().map(String::valueOf).collect(Collectors.joining(",")),
+                "approved", approved
+        );
+        return patch("?ids={ids}&approved={approved}", userId, parameters, null);
+    }
 }
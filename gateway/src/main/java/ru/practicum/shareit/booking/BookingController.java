@@ -1,55 +1,84 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class BookingController {
 
     private final BookingClient bookingClient;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader(USER_ID_HEADER) long userId,
+    public CompletableFuture<ResponseEntity<Object>> createBooking(@RequestHeader(USER_ID_HEADER) long userId,
                                                 @Valid @RequestBody BookingRequestDTO bookingRequestDTO) {
         log.info("Gateway: создание бронирования: {}, userId={}", bookingRequestDTO, userId);
         return bookingClient.createBooking(bookingRequestDTO, userId);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
                                                  @PathVariable long bookingId) {
         log.info("Gateway: получение бронирования id={}, userId={}", bookingId, userId);
         return bookingClient.getBookingById(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookings(@RequestHeader(USER_ID_HEADER) long userId,
+    public CompletableFuture<ResponseEntity<Object>> getAllBookings(@RequestHeader(USER_ID_HEADER) long userId,
                                                  @RequestParam(defaultValue = "ALL") String state,
-                                                 @RequestParam(required = false) Integer from,
-                                                 @RequestParam(required = false) Integer size) {
-        log.info("Gateway: получение бронирований пользователя userId={}, state={}, from={}, size={}", userId, state, from, size);
-        return bookingClient.getAllBookings(userId, state, from, size);
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size) {
+        log.info("Gateway: получение бронирований пользователя userId={}, state={}, cursor={}, size={}", userId, state, cursor, size);
+        return bookingClient.getAllBookings(userId, state, cursor, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByOwner(@RequestHeader(USER_ID_HEADER) long userId,
+    public CompletableFuture<ResponseEntity<Object>> getBookingsByOwner(@RequestHeader(USER_ID_HEADER) long userId,
                                                      @RequestParam(defaultValue = "ALL") String state,
-                                                     @RequestParam(required = false) Integer from,
-                                                     @RequestParam(required = false) Integer size) {
-        log.info("Gateway: получение бронирований владельца userId={}, state={}, from={}, size={}", userId, state, from, size);
-        return bookingClient.getBookingsByOwner(userId, state, from, size);
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "10") @Min(1) @Max(100) int size) {
+        log.info("Gateway: получение бронирований владельца userId={}, state={}, cursor={}, size={}", userId, state, cursor, size);
+        return bookingClient.getBookingsByOwner(userId, state, cursor, size);
+    }
+
+    @GetMapping("/stats")
+    public CompletableFuture<ResponseEntity<Object>> getBookingStats(@RequestHeader(USER_ID_HEADER) long userId) {
+        log.info("Gateway: получение статистики бронирований пользователя userId={}", userId);
+        return bookingClient.getBookingStats(userId);
+    }
+
+    @GetMapping("/owner/stats")
+    public CompletableFuture<ResponseEntity<Object>> getOwnerBookingStats(@RequestHeader(USER_ID_HEADER) long userId) {
+        log.info("Gateway: получение статистики бронирований владельца userId={}", userId);
+        return bookingClient.getOwnerBookingStats(userId);
+    }
+
+    @PatchMapping
+    public CompletableFuture<ResponseEntity<Object>> approveBookings(@RequestHeader(USER_ID_HEADER) long userId,
+                                                  @RequestParam @NotEmpty @Size(max = 100) List<Long> ids,
+                                                  @RequestParam boolean approved) {
+        log.info("Gateway: одобрение бронирований ids={}, approved={}, userId={}", ids, approved, userId);
+        return bookingClient.approveBookings(ids, userId, approved);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader(USER_ID_HEADER) long userId,
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(@RequestHeader(USER_ID_HEADER) long userId,
                                                  @PathVariable long bookingId,
                                                  @RequestParam boolean approved) {
         log.info("Gateway: одобрение бронирования id={}, approved={}, userId={}", bookingId, approved, userId);
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+
+@RequiredArgsConstructor
+public class AsyncServerClient {
+    private final CloseableHttpAsyncClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final boolean passThrough;
+
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        SimpleHttpRequest request;
+        try {
+            request = buildRequest(method, uri, headers, body);
+        } catch (JsonProcessingException e) {
+            return CompletableFuture.failedFuture(new RestClientException("Не удалось сериализовать тело запроса", e));
+        }
+
+        CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        httpClient.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                try {
+                    result.complete(toResponseEntity(response));
+                } catch (IOException e) {
+                    result.completeExceptionally(new RestClientException("Некорректный ответ сервера", e));
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                IOException cause = e instanceof IOException io ? io : new IOException(e);
+                result.completeExceptionally(new ResourceAccessException(
+                        "I/O error on " + method + " request for \"" + uri + "\": " + e.getMessage(), cause));
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    private SimpleHttpRequest buildRequest(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body)
+            throws JsonProcessingException {
+        SimpleRequestBuilder builder = SimpleRequestBuilder.create(method.name()).setUri(uri);
+        headers.forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                values.forEach(value -> builder.addHeader(name, value));
+            }
+        });
+        if (body != null) {
+            builder.setBody(objectMapper.writeValueAsBytes(body), ContentType.APPLICATION_JSON);
+        }
+        return builder.build();
+    }
+
+    private ResponseEntity<Object> toResponseEntity(SimpleHttpResponse response) throws IOException {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.getCode());
+        byte[] body = response.getBodyBytes();
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : response.getHeaders()) {
+            headers.add(header.getName(), header.getValue());
+        }
+        headers = BaseClient.passThroughHeaders(headers);
+
+        if (passThrough) {
+            ResponseEntity.BodyBuilder builder = ResponseEntity.status(status).headers(headers);
+            return body == null || body.length == 0 ? builder.build() : builder.body(body);
+        }
+        if (body == null || body.length == 0) {
+            return ResponseEntity.status(status).build();
+        }
+        if (status.is2xxSuccessful()) {
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            return ResponseEntity.status(status).headers(headers).body(objectMapper.readValue(body, Object.class));
+        }
+        return ResponseEntity.status(status).body(body);
+    }
+}
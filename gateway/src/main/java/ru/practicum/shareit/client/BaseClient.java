@@ -1,94 +1,374 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
+@Slf4j
 public class BaseClient {
+    static final Set<String> PASS_THROUGH_HEADERS = Set.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.CONTENT_LANGUAGE,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.CACHE_CONTROL,
+            HttpHeaders.LOCATION,
+            "X-Next-Cursor"
+    );
+
     protected final RestTemplate rest;
+    private final ServerHttpClientProperties properties;
+    @Nullable
+    private final AsyncServerClient asyncClient;
+    @Nullable
+    private final ConditionalResponseCache responseCache;
+    @Nullable
+    private final RequestCoalescer coalescer;
+    private final String clientName;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter bulkheadRejections;
+    private final Counter circuitRejections;
+    private final long maxHoldMillis;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, new ServerHttpClientProperties(), null, new SimpleMeterRegistry());
+    }
+
+    public BaseClient(RestTemplate rest, ServerHttpClientProperties properties, @Nullable AsyncServerClient asyncClient,
+                      MeterRegistry registry) {
         this.rest = rest;
+        this.properties = properties;
+        this.asyncClient = asyncClient;
+        this.responseCache = properties.getResponseCacheMaxEntries() > 0
+                ? new ConditionalResponseCache(properties.getResponseCacheMaxEntries())
+                : null;
+        this.clientName = getClass().getSimpleName();
+        this.coalescer = properties.isCoalescing()
+                ? new RequestCoalescer(properties.getCoalescingTimeout(), registry, clientName)
+                : null;
+        int maxConcurrent = properties.getBulkhead().getClients()
+                .getOrDefault(clientName, properties.getBulkhead().getMaxConcurrent());
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.maxHoldMillis = properties.getBulkhead().getMaxHold().toMillis();
+        this.circuitBreaker = new CircuitBreaker(properties.getCircuit(), registry, clientName);
+        this.bulkheadRejections = rejections(registry, "bulkhead");
+        this.circuitRejections = rejections(registry, "circuit-open");
+        Gauge.builder("shareit.gateway.bulkhead.in-use", bulkhead, b -> maxConcurrent - b.availablePermits())
+                .tag("client", clientName)
+                .description("Одновременные запросы клиента к серверу")
+                .register(registry);
+    }
+
+    private Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder("shareit.gateway.client.rejected")
+                .tag("client", clientName)
+                .tag("reason", reason)
+                .description("Запросы, отклонённые gateway без обращения к серверу")
+                .register(registry);
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+    protected <T> CompletableFuture<ResponseEntity<Object>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected CompletableFuture<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+    private <T> CompletableFuture<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        URI uri = expand(path, parameters);
+        HttpHeaders headers = defaultHeaders(userId);
+        if (method != HttpMethod.GET) {
+            return send(method, uri, headers, body);
+        }
+        if (coalescer != null) {
+            return coalescer.execute(uri, userId, () -> conditionalGet(uri, userId, headers));
+        }
+        return conditionalGet(uri, userId, headers);
+    }
 
-        ResponseEntity<Object> shareitServerResponse;
+    private CompletableFuture<ResponseEntity<Object>> conditionalGet(URI uri, Long userId, HttpHeaders headers) {
+        if (responseCache == null) {
+            return send(HttpMethod.GET, uri, headers, null);
+        }
+        ResponseEntity<Object> cached = responseCache.get(uri, userId);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getHeaders().getETag());
+        }
+        return send(HttpMethod.GET, uri, headers, null)
+                .thenApply(response -> revalidate(uri, userId, cached, response));
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> send(HttpMethod method, URI uri, HttpHeaders headers, @Nullable T body) {
+        return guarded(() -> dispatch(method, uri, headers, body));
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> guarded(Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        if (!bulkhead.tryAcquire()) {
+            bulkheadRejections.increment();
+            return CompletableFuture.completedFuture(unavailable(
+                    "Слишком много одновременных запросов к серверу", Duration.ZERO));
+        }
+        long permit = circuitBreaker.tryAcquire();
+        if (permit == CircuitBreaker.REJECTED) {
+            bulkhead.release();
+            circuitRejections.increment();
+            return CompletableFuture.completedFuture(unavailable(
+                    "Сервер временно недоступен", circuitBreaker.retryAfter()));
+        }
+
+        Permit held = new Permit(permit);
+        CompletableFuture<ResponseEntity<Object>> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<ResponseEntity<Object>> result = response
+                .whenComplete((body, error) -> {
+                    if (error != null) {
+                        held.release(true);
+                    }
+                })
+                .thenApply(body -> {
+                    boolean failed = body.getStatusCode().is5xxServerError();
+                    if (!(body.getBody() instanceof InputStreamResource resource)) {
+                        held.release(failed);
+                        return body;
+                    }
+                    InputStream stream;
+                    try {
+                        stream = resource.getInputStream();
+                    } catch (IOException | RuntimeException e) {
+                        held.release(true);
+                        throw new ResourceAccessException("Не удалось прочитать ответ сервера: " + e.getMessage());
+                    }
+                    ReleasingInputStream releasing = new ReleasingInputStream(stream,
+                            bodyFailed -> held.release(failed || bodyFailed));
+                    CompletableFuture.delayedExecutor(maxHoldMillis, TimeUnit.MILLISECONDS)
+                            .execute(() -> abandon(releasing));
+                    return ResponseEntity.status(body.getStatusCode())
+                            .headers(body.getHeaders())
+                            .body(new InputStreamResource(releasing));
+                });
+        result.whenComplete((body, error) -> {
+            if (error instanceof CancellationException) {
+                held.release(false);
+            }
+        });
+        return result;
+    }
+
+    private void abandon(ReleasingInputStream body) {
+        if (body.isClosed()) {
+            return;
+        }
+        log.warn("Gateway: ответ сервера для {} не дочитан за {} мс, соединение закрыто", clientName, maxHoldMillis);
+        try {
+            body.close();
+        } catch (IOException e) {
+            log.debug("Gateway: не удалось закрыть ответ сервера", e);
+        }
+    }
+
+    private final class Permit {
+        private final long generation;
+        private final long started = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long generation) {
+            this.generation = generation;
+        }
+
+        private void release(boolean failed) {
+            if (released.compareAndSet(false, true)) {
+                bulkhead.release();
+                circuitBreaker.onComplete(generation, failed, System.nanoTime() - started);
+            }
+        }
+    }
+
+    private static ResponseEntity<Object> unavailable(String message, Duration retryAfter) {
+        long seconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(Map.of("error", message));
+    }
+
+    private <T> CompletableFuture<ResponseEntity<Object>> dispatch(HttpMethod method, URI uri, HttpHeaders headers, @Nullable T body) {
+        if (asyncClient != null) {
+            return asyncClient.exchange(method, uri, headers, body);
+        }
+        if (properties.isPassThrough()) {
+            return CompletableFuture.completedFuture(passThrough(method, uri, headers, body));
+        }
+        return CompletableFuture.completedFuture(exchange(method, uri, headers, body));
+    }
+
+    private ResponseEntity<Object> revalidate(URI uri, Long userId, @Nullable ResponseEntity<Object> cached,
+                                              ResponseEntity<Object> response) {
+        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            return cached;
+        }
+        if (!response.getStatusCode().isSameCodeAs(HttpStatus.OK) || response.getHeaders().getETag() == null) {
+            responseCache.evict(uri, userId);
+            return response;
+        }
+        ResponseEntity<Object> buffered = buffered(uri, response);
+        responseCache.put(uri, userId, buffered);
+        return buffered;
+    }
+
+    static ResponseEntity<Object> buffered(URI uri, ResponseEntity<Object> response) {
+        if (!(response.getBody() instanceof InputStreamResource resource)) {
+            return response;
+        }
+        try (InputStream body = resource.getInputStream()) {
+            return ResponseEntity.status(response.getStatusCode())
+                    .headers(response.getHeaders())
+                    .body(body.readAllBytes());
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
+    protected CompletableFuture<ResponseEntity<Object>> stream(String path, @Nullable Map<String, Object> parameters, MediaType accept) {
+        HttpHeaders headers = defaultHeaders(null);
+        headers.setAccept(List.of(accept));
+        URI uri = expand(path, parameters);
+        return guarded(() -> CompletableFuture.completedFuture(passThrough(HttpMethod.GET, uri, headers, null)));
+    }
+
+    private <T> ResponseEntity<Object> passThrough(HttpMethod method, URI uri, HttpHeaders requestHeaders, @Nullable T body) {
+        ClientHttpResponse response = null;
         try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            rest.httpEntityCallback(new HttpEntity<>(body, requestHeaders)).doWithRequest(request);
+            response = request.execute();
+
+            HttpStatusCode status = response.getStatusCode();
+            HttpHeaders headers = passThroughHeaders(response.getHeaders());
+            if (status.isSameCodeAs(HttpStatus.NO_CONTENT) || status.isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                    || response.getHeaders().getContentLength() == 0) {
+                response.close();
+                return ResponseEntity.status(status).headers(headers).build();
             }
+            return ResponseEntity.status(status).headers(headers).body(new InputStreamResource(response.getBody()));
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    static HttpHeaders passThroughHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (PASS_THROUGH_HEADERS.stream().anyMatch(name::equalsIgnoreCase)) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
+    private <T> ResponseEntity<Object> exchange(HttpMethod method, URI uri, HttpHeaders headers, @Nullable T body) {
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
+
+        ResponseEntity<Object> shareitServerResponse;
+        try {
+            shareitServerResponse = rest.exchange(uri, method, requestEntity, Object.class);
         } catch (HttpStatusCodeException e) {
             return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
         }
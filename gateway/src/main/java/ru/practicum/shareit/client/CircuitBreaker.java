@@ -0,0 +1,128 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+@Slf4j
+class CircuitBreaker {
+    static final long REJECTED = -1;
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String client;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final boolean[] window;
+    private final Map<State, Counter> transitions = new EnumMap<>(State.class);
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int position;
+    private int recorded;
+    private int failures;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    CircuitBreaker(ServerHttpClientProperties.Circuit properties, MeterRegistry registry, String client) {
+        this.client = client;
+        this.minimumCalls = properties.getMinimumCalls();
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.slowCallNanos = properties.getSlowCallThreshold().toNanos();
+        this.openNanos = properties.getOpenDuration().toNanos();
+        this.halfOpenProbes = properties.getHalfOpenProbes();
+        this.window = new boolean[properties.getWindowSize()];
+        for (State to : State.values()) {
+            transitions.put(to, Counter.builder("shareit.gateway.circuit.transitions")
+                    .tag("client", client)
+                    .tag("state", to.name().toLowerCase(Locale.ROOT))
+                    .description("Переходы автомата защиты gateway -> server в состояние")
+                    .register(registry));
+        }
+        Gauge.builder("shareit.gateway.circuit.state", this, breaker -> breaker.state().ordinal())
+                .tag("client", client)
+                .description("Состояние автомата защиты: 0 - закрыт, 1 - открыт, 2 - пробные запросы")
+                .register(registry);
+    }
+
+    synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return REJECTED;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight >= halfOpenProbes) {
+                return REJECTED;
+            }
+            probesInFlight++;
+        }
+        return generation;
+    }
+
+    synchronized void onComplete(long permit, boolean failed, long elapsedNanos) {
+        if (permit != generation) {
+            return;
+        }
+        boolean failure = failed || elapsedNanos >= slowCallNanos;
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+            if (failure) {
+                transition(State.OPEN);
+            } else if (++probeSuccesses >= halfOpenProbes) {
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        if (recorded == window.length && window[position]) {
+            failures--;
+        }
+        window[position] = failure;
+        position = (position + 1) % window.length;
+        recorded = Math.min(recorded + 1, window.length);
+        if (failure) {
+            failures++;
+        }
+        if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+            transition(State.OPEN);
+        }
+    }
+
+    synchronized Duration retryAfter() {
+        return Duration.ofNanos(Math.max(0, openNanos - (System.nanoTime() - openedAt)));
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void transition(State to) {
+        log.warn("Gateway: circuit for {} {} -> {}", client, state, to);
+        state = to;
+        generation++;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (to == State.OPEN) {
+            openedAt = System.nanoTime();
+        }
+        if (to == State.CLOSED) {
+            Arrays.fill(window, false);
+            position = 0;
+            recorded = 0;
+            failures = 0;
+        }
+        transitions.get(to).increment();
+    }
+}
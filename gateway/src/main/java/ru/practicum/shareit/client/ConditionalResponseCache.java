@@ -0,0 +1,36 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+
+class ConditionalResponseCache {
+    private final int maxEntries;
+    private final LinkedHashMap<String, ResponseEntity<Object>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    ConditionalResponseCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    @Nullable
+    synchronized ResponseEntity<Object> get(URI uri, @Nullable Long userId) {
+        return entries.get(key(uri, userId));
+    }
+
+    synchronized void put(URI uri, @Nullable Long userId, ResponseEntity<Object> response) {
+        entries.put(key(uri, userId), response);
+        if (entries.size() > maxEntries) {
+            entries.pollFirstEntry();
+        }
+    }
+
+    synchronized void evict(URI uri, @Nullable Long userId) {
+        entries.remove(key(uri, userId));
+    }
+
+    private static String key(URI uri, @Nullable Long userId) {
+        return uri + "#" + userId;
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.client;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+class ReleasingInputStream extends FilterInputStream {
+    private final Consumer<Boolean> onClose;
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile boolean failed;
+
+    ReleasingInputStream(InputStream in, Consumer<Boolean> onClose) {
+        super(in);
+        this.onClose = onClose;
+    }
+
+    @Override
+    public int read() throws IOException {
+        try {
+            return super.read();
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        try {
+            return super.read(b, off, len);
+        } catch (IOException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    boolean isClosed() {
+        return closed.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            super.close();
+        } finally {
+            onClose.accept(failed);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class RequestCoalescer {
+    private static final ResponseEntity<Object> TIMED_OUT = ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+
+    private final long timeoutMillis;
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter timeouts;
+
+    RequestCoalescer(Duration timeout, MeterRegistry registry, String client) {
+        this.timeoutMillis = timeout.toMillis();
+        this.leaders = requests(registry, client, "leader");
+        this.followers = requests(registry, client, "follower");
+        this.timeouts = Counter.builder("shareit.gateway.coalescing.timeouts")
+                .tag("client", client)
+                .description("Объединённые запросы, не дождавшиеся ответа сервера")
+                .register(registry);
+        Gauge.builder("shareit.gateway.coalescing.in-flight", inFlight, Map::size)
+                .tag("client", client)
+                .description("Запросы к серверу, к которым могут присоединиться одинаковые запросы")
+                .register(registry);
+    }
+
+    CompletableFuture<ResponseEntity<Object>> execute(URI uri, @Nullable Long userId,
+                                                      Supplier<CompletableFuture<ResponseEntity<Object>>> call) {
+        String key = uri + "#" + userId;
+        Flight created = new Flight();
+        Flight flight = inFlight.compute(key, (k, current) -> current != null ? current.join() : created);
+        if (flight != created) {
+            followers.increment();
+            return flight.result.copy()
+                    .completeOnTimeout(TIMED_OUT, timeoutMillis, TimeUnit.MILLISECONDS)
+                    .whenComplete((response, error) -> {
+                        if (response == TIMED_OUT) {
+                            timeouts.increment();
+                        }
+                    });
+        }
+
+        leaders.increment();
+
+        CompletableFuture<ResponseEntity<Object>> response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((result, error) -> land(uri, key, flight, result, error));
+        return flight.result;
+    }
+
+    private void land(URI uri, String key, Flight flight, @Nullable ResponseEntity<Object> response,
+                      @Nullable Throwable error) {
+        inFlight.remove(key, flight);
+        if (error != null) {
+            flight.result.completeExceptionally(error);
+            return;
+        }
+        ResponseEntity<Object> shared;
+        try {
+            shared = flight.followers.get() == 0 ? response : BaseClient.buffered(uri, response);
+        } catch (RuntimeException e) {
+            flight.result.completeExceptionally(e);
+            return;
+        }
+        flight.result.complete(shared);
+    }
+
+    private static Counter requests(MeterRegistry registry, String client, String role) {
+        return Counter.builder("shareit.gateway.coalescing.requests")
+                .tag("client", client)
+                .tag("role", role)
+                .description("GET-запросы к серверу: ведущие и присоединившиеся к уже выполняющимся")
+                .register(registry);
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        private final AtomicInteger followers = new AtomicInteger();
+
+        private Flight join() {
+            followers.incrementAndGet();
+            return this;
+        }
+    }
+}
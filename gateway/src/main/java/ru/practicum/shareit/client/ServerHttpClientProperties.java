@@ -0,0 +1,66 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class ServerHttpClientProperties {
+    private boolean async = false;
+
+    private boolean passThrough = false;
+
+    private int maxTotal = 200;
+
+    private int maxPerRoute = 200;
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    private Duration readTimeout = Duration.ofSeconds(30);
+
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private Duration idleEvictTimeout = Duration.ofSeconds(60);
+
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    private int responseCacheMaxEntries = 10_000;
+
+    private boolean coalescing = true;
+
+    private Duration coalescingTimeout = Duration.ofSeconds(10);
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private Circuit circuit = new Circuit();
+
+    @Data
+    public static class Bulkhead {
+        private int maxConcurrent = 50;
+
+        private Duration maxHold = Duration.ofSeconds(60);
+
+        private Map<String, Integer> clients = new HashMap<>();
+    }
+
+    @Data
+    public static class Circuit {
+        private int windowSize = 50;
+
+        private int minimumCalls = 20;
+
+        private int failureRateThreshold = 50;
+
+        private Duration slowCallThreshold = Duration.ofSeconds(5);
+
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        private int halfOpenProbes = 3;
+    }
+}
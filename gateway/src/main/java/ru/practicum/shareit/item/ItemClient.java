@@ -1,54 +1,91 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerHttpClientProperties;
 
-
+import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ServerHttpClientProperties properties, ObjectProvider<AsyncServerClient> asyncClient,
+                      MeterRegistry registry) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .build());
+                .build(), properties, asyncClient.getIfAvailable(), registry);
     }
 
-    public ResponseEntity<Object> createItem(Long userId, ItemRequestDTO itemRequestDTO) {
+    public CompletableFuture<ResponseEntity<Object>> createItem(Long userId, ItemRequestDTO itemRequestDTO) {
         return post("", userId, itemRequestDTO);
     }
 
-    public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemUpdateDTO itemUpdateDTO) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(Long userId, Long itemId, ItemUpdateDTO itemUpdateDTO) {
         return patch("/" + itemId, userId, itemUpdateDTO);
     }
 
-    public ResponseEntity<Object> getItemById(Long itemId, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemById(Long itemId, Long userId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> getAllItemsByOwner(Long ownerId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllItemsByOwner(Long ownerId) {
         return get("", ownerId);
     }
 
-    public ResponseEntity<Object> searchItems(String text) {
+    public CompletableFuture<ResponseEntity<Object>> searchItems(String text, Integer from, Integer size) {
+        if (text.isBlank()) {
+            return CompletableFuture.completedFuture(ResponseEntity.ok().body(null));
+        }
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        return get("/search?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> streamItems(String text) {
         if (text.isBlank()) {
-            return ResponseEntity.ok().body(null);
+            return CompletableFuture.completedFuture(ResponseEntity.ok().build());
         }
         Map<String, Object> parameters = Map.of("text", text);
-        return get("/search?text={text}", null, parameters);
+        return stream("/search?text={text}", parameters, MediaType.APPLICATION_NDJSON);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getItemAvailability(Long itemId, Long userId,
+                                                                         LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getOwnerAvailability(Long ownerId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/availability?from={from}&to={to}", ownerId, parameters);
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentRequestDTO commentRequestDTO) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(Long userId, Long itemId, CommentRequestDTO commentRequestDTO) {
         return post("/" + itemId + "/comment", userId, commentRequestDTO);
     }
 
-    public ResponseEntity<Object> deleteItem(Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(Long itemId) {
         return delete("/" + itemId);
     }
 }
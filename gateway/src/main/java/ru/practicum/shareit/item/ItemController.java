@@ -1,17 +1,26 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 
 @Controller
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class ItemController {
 
     private final ItemClient itemClient;
@@ -19,41 +28,68 @@ public class ItemController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> createItem(@RequestHeader(USER_ID_HEADER) Long userId,
                                              @Valid @RequestBody ItemRequestDTO itemRequestDTO) {
         log.info("Gateway: create item {} by user {}", itemRequestDTO, userId);
         return itemClient.createItem(userId, itemRequestDTO);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> updateItem(@RequestHeader(USER_ID_HEADER) Long userId,
                                              @PathVariable Long itemId,
                                              @RequestBody @Valid ItemUpdateDTO itemUpdateDTO) {
         log.info("Gateway: update item id {} by user {}", itemId, userId);
         return itemClient.updateItem(userId, itemId, itemUpdateDTO);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getItemAvailability(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Gateway: get availability of item {} from {} to {}", itemId, from, to);
+        return itemClient.getItemAvailability(itemId, userId, from, to);
+    }
+
+    @GetMapping("/availability")
+    public CompletableFuture<ResponseEntity<Object>> getOwnerAvailability(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Gateway: get availability of items owned by {} from {} to {}", userId, from, to);
+        return itemClient.getOwnerAvailability(userId, from, to);
+    }
+
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getItemById(@RequestHeader(USER_ID_HEADER) Long userId,
                                               @PathVariable Long itemId) {
         log.info("Gateway: get item id {}", itemId);
         return itemClient.getItemById(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItems(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getAllItems(@RequestHeader(USER_ID_HEADER) Long userId) {
         log.info("Gateway: get all items by owner {}", userId);
         return itemClient.getAllItemsByOwner(userId);
     }
 
-    @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam String text) {
-        log.info("Gateway: search items by text '{}'", text);
-        return itemClient.searchItems(text);
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<Object>> searchItems(@RequestParam String text,
+                                                                 @RequestParam(defaultValue = "0") @Min(0) Integer from,
+                                                                 @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size) {
+        log.info("Gateway: search items by text '{}', from={}, size={}", text, from, size);
+        return itemClient.searchItems(text, from, size);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public CompletableFuture<ResponseEntity<Object>> streamItems(@RequestParam String text) {
+        log.info("Gateway: stream items by text '{}'", text);
+        return itemClient.streamItems(text);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> addComment(@RequestHeader(USER_ID_HEADER) Long userId,
                                              @PathVariable Long itemId,
                                              @Valid @RequestBody CommentRequestDTO commentRequestDTO) {
         log.info("Gateway: add comment to item {} by user {}", itemId, userId);
@@ -61,7 +97,7 @@ public class ItemController {
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItem(@PathVariable Long itemId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteItem(@PathVariable Long itemId) {
         log.info("Gateway: delete item id {}", itemId);
         return itemClient.deleteItem(itemId);
     }
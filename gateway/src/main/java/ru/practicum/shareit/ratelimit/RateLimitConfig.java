@@ -0,0 +1,28 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(name = "shareit.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+    private final RateLimitInterceptor interceptor;
+
+    public RateLimitConfig(RateLimitProperties properties, ObjectProvider<ConnPoolControl<HttpRoute>> pools,
+                           MeterRegistry registry) {
+        this.interceptor = new RateLimitInterceptor(properties, pools.orderedStream().toList(), registry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor);
+    }
+}
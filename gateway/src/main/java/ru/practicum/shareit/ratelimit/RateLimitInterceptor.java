@@ -0,0 +1,91 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import ru.practicum.shareit.exception.TooManyRequestsException;
+
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimitProperties properties;
+    private final List<ConnPoolControl<HttpRoute>> pools;
+    private final MeterRegistry registry;
+    private final StripedTokenBuckets buckets;
+    private final long origin = System.nanoTime();
+
+    public RateLimitInterceptor(RateLimitProperties properties, List<ConnPoolControl<HttpRoute>> pools,
+                                MeterRegistry registry) {
+        this.properties = properties;
+        this.pools = pools;
+        this.registry = registry;
+        this.buckets = new StripedTokenBuckets(properties.getStripes());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        String pattern = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        String route = request.getMethod() + " " + pattern;
+
+        if (upstreamSaturated()) {
+            reject(route, "saturated");
+            throw new TooManyRequestsException("Сервер перегружен, повторите запрос позже",
+                    properties.getShedRetryAfter());
+        }
+
+        String client = client(request);
+        RateLimitProperties.Limit limit = properties.getRoutes().getOrDefault(pattern, properties.getDefaults());
+        long wait = buckets.tryAcquire(route + "#" + client, limit, System.nanoTime() - origin);
+        if (wait > 0) {
+            log.debug("Gateway: rate limit exceeded by {} on {}", client, route);
+            reject(route, "rate");
+            throw new TooManyRequestsException("Превышен лимит запросов", Duration.ofNanos(wait));
+        }
+        return true;
+    }
+
+    private boolean upstreamSaturated() {
+        for (ConnPoolControl<HttpRoute> pool : pools) {
+            PoolStats stats = pool.getTotalStats();
+            if (stats.getLeased() >= stats.getMax()
+                    && stats.getPending() >= Math.max(1, properties.getShedPendingThreshold())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Без trusted-client-header анонимные клиенты различаются по адресу соединения:
+    // за прокси или балансировщиком все они попадут в одну корзину.
+    private String client(HttpServletRequest request) {
+        String userId = request.getHeader(USER_ID_HEADER);
+        if (userId != null) {
+            return "user:" + userId.trim();
+        }
+        String header = properties.getTrustedClientHeader();
+        String forwarded = header != null && !header.isBlank() ? request.getHeader(header) : null;
+        if (forwarded != null && !forwarded.isBlank()) {
+            return "ip:" + forwarded.split(",", 2)[0].trim();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(String route, String reason) {
+        registry.counter("shareit.gateway.rate-limit.rejected", "route", route, "reason", reason).increment();
+    }
+}
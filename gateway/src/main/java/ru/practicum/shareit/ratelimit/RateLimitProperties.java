@@ -0,0 +1,33 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+
+    private int stripes = 65_536;
+
+    private Limit defaults = new Limit();
+
+    private Map<String, Limit> routes = new HashMap<>();
+
+    private int shedPendingThreshold = 1;
+
+    private Duration shedRetryAfter = Duration.ofSeconds(1);
+
+    private String trustedClientHeader;
+
+    @Data
+    public static class Limit {
+        private double permitsPerSecond = 20;
+
+        private int burst = 40;
+    }
+}
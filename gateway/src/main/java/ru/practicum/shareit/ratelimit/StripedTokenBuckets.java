@@ -0,0 +1,35 @@
+package ru.practicum.shareit.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Ключи отображаются на фиксированный массив по хешу без хранения самих ключей: память ограничена
+// и не требует вычистки, но при коллизии хешей несвязанные клиенты делят одну корзину.
+// Вероятность коллизии регулируется числом полос (shareit.rate-limit.stripes).
+class StripedTokenBuckets {
+    private final AtomicLongArray theoreticalArrivals;
+    private final int mask;
+
+    StripedTokenBuckets(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.theoreticalArrivals = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    long tryAcquire(Object key, RateLimitProperties.Limit limit, long now) {
+        int hash = key.hashCode();
+        int stripe = (hash ^ (hash >>> 16)) & mask;
+        long interval = (long) (1_000_000_000L / limit.getPermitsPerSecond());
+        long tolerance = interval * (limit.getBurst() - 1);
+        while (true) {
+            long arrival = theoreticalArrivals.get(stripe);
+            long start = Math.max(arrival, now);
+            long wait = start - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrivals.compareAndSet(stripe, arrival, start + interval)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -1,33 +1,40 @@
 package ru.practicum.shareit.request;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerHttpClientProperties;
 
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ServerHttpClientProperties properties, ObjectProvider<AsyncServerClient> asyncClient,
+                             MeterRegistry registry) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .build());
+                .build(), properties, asyncClient.getIfAvailable(), registry);
     }
 
-    public ResponseEntity<Object> createRequest(Long userId, ItemRequestReqDTO requestDTO) {
+    public CompletableFuture<ResponseEntity<Object>> createRequest(Long userId, ItemRequestReqDTO requestDTO) {
         return post("", userId, requestDTO);
     }
 
-    public ResponseEntity<Object> getUserRequests(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUserRequests(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId, Integer from, Integer size) {
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
@@ -35,7 +42,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all", userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(Long userId, Long requestId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(Long userId, Long requestId) {
         return get("/" + requestId, userId);
     }
 }
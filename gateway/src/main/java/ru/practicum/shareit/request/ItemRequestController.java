@@ -10,6 +10,8 @@ import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
@@ -21,20 +23,20 @@ public class ItemRequestController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> createRequest(@RequestHeader(USER_ID_HEADER) Long userId,
                                                 @Valid @RequestBody ItemRequestReqDTO requestDTO) {
         log.info("Gateway: создание запроса пользователем ID {}", userId);
         return itemRequestClient.createRequest(userId, requestDTO);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUserRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUserRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
         log.info("Gateway: получение запросов пользователя ID {}", userId);
         return itemRequestClient.getUserRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId,
                                                  @RequestParam(defaultValue = "0") @Min(0) Integer from,
                                                  @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size) {
         log.info("Gateway: получение всех запросов (кроме своих) для пользователя ID {}", userId);
@@ -42,7 +44,7 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(@RequestHeader(USER_ID_HEADER) Long userId,
                                                  @PathVariable Long requestId) {
         log.info("Gateway: получение запроса ID {} пользователем ID {}", requestId, userId);
         return itemRequestClient.getRequestById(userId, requestId);
@@ -1,39 +1,47 @@
 package ru.practicum.shareit.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerHttpClientProperties;
+
+import java.util.concurrent.CompletableFuture;
 
 @Component
 public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ServerHttpClientProperties properties, ObjectProvider<AsyncServerClient> asyncClient,
+                      MeterRegistry registry) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .build());
+                .build(), properties, asyncClient.getIfAvailable(), registry);
     }
 
-    public ResponseEntity<Object> createUser(UserRequestDTO userRequestDTO) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(UserRequestDTO userRequestDTO) {
         return post("", userRequestDTO);
     }
 
-    public ResponseEntity<Object> getUserById(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getUserById(long userId) {
         return get("/" + userId);
     }
 
-    public ResponseEntity<Object> getAllUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getAllUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> updateUser(long userId, UserUpdateDTO updateUserDTO) {
+    public CompletableFuture<ResponseEntity<Object>> updateUser(long userId, UserUpdateDTO updateUserDTO) {
         return patch("/" + userId, updateUserDTO);
     }
 
-    public ResponseEntity<Object> deleteUser(long userId) {
+    public CompletableFuture<ResponseEntity<Object>> deleteUser(long userId) {
         return delete("/" + userId);
     }
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.client.ServerHttpClientProperties;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayConfigTest {
+    private final GatewayConfig config = new GatewayConfig();
+    private final ServerHttpClientProperties properties = new ServerHttpClientProperties();
+    private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+    private HttpServer server;
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/users", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        properties.setMaxTotal(7);
+        properties.setMaxPerRoute(3);
+        connectionManager = config.serverConnectionManager(properties);
+        httpClient = config.serverHttpClient(connectionManager, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        connectionManager.close();
+        server.stop(0);
+    }
+
+    @Test
+    void serverConnectionManager_shouldApplyPoolLimits() {
+        assertEquals(7, connectionManager.getMaxTotal());
+        assertEquals(3, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    void serverHttpClient_shouldReuseKeptAliveConnection() {
+        RestTemplate rest = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/users";
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("[]", rest.getForObject(url, String.class));
+        }
+
+        assertEquals(1, clientPorts.size());
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+        assertEquals(1, connectionManager.getTotalStats().getAvailable());
+    }
+
+    @Test
+    void serverConnectionPoolMetrics_shouldExposePoolState() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        config.serverConnectionPoolMetrics(connectionManager).bindTo(registry);
+
+        assertEquals(7.0, registry.get("shareit.gateway.http.pool.connections")
+                .tags("transport", "blocking", "state", "max").gauge().value());
+        assertEquals(0.0, registry.get("shareit.gateway.http.pool.connections")
+                .tags("transport", "blocking", "state", "pending").gauge().value());
+    }
+}
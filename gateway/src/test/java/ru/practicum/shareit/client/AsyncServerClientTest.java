@@ -0,0 +1,130 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncServerClientTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer server;
+    private CloseableHttpAsyncClient httpClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/items/1", exchange -> respond(exchange, 200, "{\"id\":1,\"name\":\"Дрель\"}"));
+        server.createContext("/items/2", exchange -> respond(exchange, 404, "{\"error\":\"Вещь не найдена: 2\"}"));
+        server.createContext("/items", exchange -> respond(exchange, 201,
+                "{\"owner\":\"" + exchange.getRequestHeaders().getFirst("X-Sharer-User-Id") + "\",\"request\":"
+                        + new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8) + "}"));
+        server.start();
+        httpClient = HttpAsyncClients.createDefault();
+        httpClient.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void exchange_shouldDeserializeSuccessfulResponse() {
+        ResponseEntity<Object> response = client(false).exchange(HttpMethod.GET, uri("/items/1"), headers(), null).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("id", 1, "name", "Дрель"), response.getBody());
+        assertNull(response.getHeaders().get(HttpHeaders.CONTENT_LENGTH));
+        assertNull(response.getHeaders().get("X-Internal"));
+    }
+
+    @Test
+    void exchange_shouldSerializeBodyAndForwardHeaders() {
+        ResponseEntity<Object> response = client(false)
+                .exchange(HttpMethod.POST, uri("/items"), headers(), Map.of("name", "Пила")).join();
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(Map.of("owner", "1", "request", Map.of("name", "Пила")), response.getBody());
+    }
+
+    @Test
+    void exchange_shouldKeepErrorBodyAsBytes() {
+        ResponseEntity<Object> response = client(false).exchange(HttpMethod.GET, uri("/items/2"), headers(), null).join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("{\"error\":\"Вещь не найдена: 2\"}", text(response));
+    }
+
+    @Test
+    void exchange_inPassThroughMode_shouldReturnServerBytesAndHeaders() {
+        ResponseEntity<Object> response = client(true).exchange(HttpMethod.GET, uri("/items/1"), headers(), null).join();
+
+        assertEquals("{\"id\":1,\"name\":\"Дрель\"}", text(response));
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("\"v1\"", response.getHeaders().getETag());
+        assertNull(response.getHeaders().get("X-Internal"));
+    }
+
+    @Test
+    void exchange_whenServerUnreachable_shouldFailWithResourceAccessException() {
+        URI unreachable = URI.create("http://127.0.0.1:1/items/1");
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> client(false).exchange(HttpMethod.GET, unreachable, headers(), null).get());
+
+        assertInstanceOf(ResourceAccessException.class, error.getCause());
+    }
+
+    private AsyncServerClient client(boolean passThrough) {
+        return new AsyncServerClient(httpClient, objectMapper, passThrough);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private static HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.set("X-Sharer-User-Id", "1");
+        return headers;
+    }
+
+    private static String text(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("ETag", "\"v1\"");
+        exchange.getResponseHeaders().add("X-Internal", "true");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
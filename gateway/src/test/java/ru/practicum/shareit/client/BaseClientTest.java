@@ -0,0 +1,207 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withNoContent;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withResourceNotFound;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+    private final RestTemplate rest = new RestTemplateBuilder()
+            .uriTemplateHandler(new DefaultUriBuilderFactory("http://server/items"))
+            .build();
+    private final MockRestServiceServer server = MockRestServiceServer.bindTo(rest).ignoreExpectOrder(true).build();
+    private final ServerHttpClientProperties properties = new ServerHttpClientProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    BaseClientTest() {
+        properties.setCoalescing(false);
+        properties.setResponseCacheMaxEntries(0);
+    }
+
+    @Test
+    void bulkhead_shouldHoldPermitUntilStreamedBodyIsClosed() throws Exception {
+        properties.setPassThrough(true);
+        properties.getBulkhead().setMaxConcurrent(1);
+        TestClient client = new TestClient(rest, properties, registry);
+        server.expect(ExpectedCount.times(2), requestTo("http://server/items/1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> streaming = client.item(1L).join();
+        assertEquals(1.0, inUse());
+
+        ResponseEntity<Object> rejected = client.item(1L).join();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertEquals("1", rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(Map.of("error", "Слишком много одновременных запросов к серверу"), rejected.getBody());
+        assertEquals(1.0, registry.counter("shareit.gateway.client.rejected",
+                "client", "TestClient", "reason", "bulkhead").count());
+
+        try (InputStream body = ((InputStreamResource) streaming.getBody()).getInputStream()) {
+            assertEquals("{\"id\":1}", new String(body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        assertEquals(0.0, inUse());
+        assertEquals(HttpStatus.OK, client.item(1L).join().getStatusCode());
+    }
+
+    @Test
+    void bulkhead_shouldReclaimPermitOfAbandonedStreamedBody() throws Exception {
+        properties.setPassThrough(true);
+        properties.getBulkhead().setMaxConcurrent(1);
+        properties.getBulkhead().setMaxHold(Duration.ofMillis(100));
+        TestClient client = new TestClient(rest, properties, registry);
+        server.expect(ExpectedCount.times(2), requestTo("http://server/items/1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> abandoned = client.item(1L).join();
+        assertInstanceOf(InputStreamResource.class, abandoned.getBody());
+        assertEquals(1.0, inUse());
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (inUse() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0.0, inUse());
+        assertEquals(HttpStatus.OK, client.item(1L).join().getStatusCode());
+    }
+
+    @Test
+    void bulkhead_shouldReleasePermitForBufferedResponses() {
+        properties.getBulkhead().setMaxConcurrent(1);
+        TestClient client = new TestClient(rest, properties, registry);
+        server.expect(ExpectedCount.times(2), requestTo("http://server/items/1"))
+                .andRespond(withSuccess("{\"id\":1}", MediaType.APPLICATION_JSON));
+
+        assertEquals(Map.of("id", 1), client.item(1L).join().getBody());
+        assertEquals(0.0, inUse());
+        assertEquals(HttpStatus.OK, client.item(1L).join().getStatusCode());
+    }
+
+    @Test
+    void circuit_shouldRejectWithoutCallingServerOnceOpen() {
+        properties.getCircuit().setWindowSize(2);
+        properties.getCircuit().setMinimumCalls(2);
+        properties.getCircuit().setOpenDuration(Duration.ofSeconds(30));
+        TestClient client = new TestClient(rest, properties, registry);
+        server.expect(ExpectedCount.times(2), requestTo("http://server/items/1")).andRespond(withServerError());
+
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, client.item(1L).join().getStatusCode());
+        assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, client.item(1L).join().getStatusCode());
+        ResponseEntity<Object> rejected = client.item(1L).join();
+
+        server.verify();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatusCode());
+        assertTrue(Integer.parseInt(rejected.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)) > 25);
+        assertEquals(1.0, registry.counter("shareit.gateway.client.rejected",
+                "client", "TestClient", "reason", "circuit-open").count());
+        assertEquals(0.0, inUse());
+    }
+
+    @Test
+    void passThrough_shouldStreamServerBytesWithAllowedHeaders() throws Exception {
+        properties.setPassThrough(true);
+        TestClient client = new TestClient(rest, properties, registry);
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.setETag("\"v1\"");
+        serverHeaders.set("X-Internal", "true");
+        server.expect(requestTo("http://server/items/1"))
+                .andRespond(withSuccess("{\"id\":1, \"name\":\"Дрель\"}", MediaType.APPLICATION_JSON)
+                        .headers(serverHeaders));
+
+        ResponseEntity<Object> response = client.item(1L).join();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("\"v1\"", response.getHeaders().getETag());
+        assertNull(response.getHeaders().get("X-Internal"));
+        assertEquals("{\"id\":1, \"name\":\"Дрель\"}", text(response));
+        assertEquals(0.0, inUse());
+    }
+
+    @Test
+    void passThrough_shouldReturnNoBodyForNoContent() {
+        properties.setPassThrough(true);
+        TestClient client = new TestClient(rest, properties, registry);
+        server.expect(requestTo("http://server/items/1")).andRespond(withNoContent());
+
+        ResponseEntity<Object> response = client.item(1L).join();
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals(0.0, inUse());
+    }
+
+    @Test
+    void passThrough_shouldForwardErrorStatusAndBody() throws Exception {
+        properties.setPassThrough(true);
+        TestClient client = new TestClient(rest, properties, registry);
+        server.expect(requestTo("http://server/items/2"))
+                .andRespond(withResourceNotFound()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"error\":\"Вещь не найдена: 2\"}"));
+
+        ResponseEntity<Object> response = client.item(2L).join();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("{\"error\":\"Вещь не найдена: 2\"}", text(response));
+    }
+
+    @Test
+    void stream_shouldRequestGivenMediaType() throws Exception {
+        TestClient client = new TestClient(rest, properties, registry);
+        server.expect(requestTo("http://server/items/export"))
+                .andExpect(header(HttpHeaders.ACCEPT, "application/x-ndjson"))
+                .andRespond(withSuccess("{\"id\":1}\n{\"id\":2}\n", MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<Object> response = client.export().join();
+
+        server.verify();
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertEquals("{\"id\":1}\n{\"id\":2}\n", text(response));
+    }
+
+    private static String text(ResponseEntity<Object> response) throws Exception {
+        try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private double inUse() {
+        return registry.get("shareit.gateway.bulkhead.in-use").gauge().value();
+    }
+
+    static class TestClient extends BaseClient {
+        TestClient(RestTemplate rest, ServerHttpClientProperties properties, SimpleMeterRegistry registry) {
+            super(rest, properties, null, registry);
+        }
+
+        CompletableFuture<ResponseEntity<Object>> item(long itemId) {
+            return get("/" + itemId, 1L);
+        }
+
+        CompletableFuture<ResponseEntity<Object>> export() {
+            return stream("/export", null, MediaType.APPLICATION_NDJSON);
+        }
+    }
+}
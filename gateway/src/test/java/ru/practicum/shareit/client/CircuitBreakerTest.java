@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ServerHttpClientProperties.Circuit properties = new ServerHttpClientProperties.Circuit();
+
+    CircuitBreakerTest() {
+        properties.setWindowSize(4);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(50);
+        properties.setSlowCallThreshold(Duration.ofSeconds(1));
+        properties.setOpenDuration(Duration.ofMinutes(1));
+        properties.setHalfOpenProbes(2);
+    }
+
+    @Test
+    void onComplete_shouldOpenOnceFailureRateReachesThreshold() {
+        CircuitBreaker breaker = breaker();
+
+        record(breaker, true, false, false);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        record(breaker, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        assertTrue(breaker.retryAfter().compareTo(Duration.ofSeconds(50)) > 0);
+        assertEquals(1.0, registry.counter("shareit.gateway.circuit.transitions",
+                "client", "ItemClient", "state", "open").count());
+        assertEquals(1.0, registry.get("shareit.gateway.circuit.state").gauge().value());
+    }
+
+    @Test
+    void onComplete_shouldForgetOutcomesThatLeftTheWindow() {
+        properties.setFailureRateThreshold(75);
+        CircuitBreaker breaker = breaker();
+
+        record(breaker, true, true, false, false);
+        record(breaker, false, false);
+        record(breaker, true, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+
+        record(breaker, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void onComplete_shouldCountSlowCallsAsFailures() {
+        CircuitBreaker breaker = breaker();
+
+        for (int i = 0; i < 4; i++) {
+            breaker.onComplete(breaker.tryAcquire(), false, Duration.ofSeconds(2).toNanos());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void tryAcquire_shouldLimitHalfOpenProbesAndCloseAfterSuccesses() {
+        properties.setOpenDuration(Duration.ZERO);
+        CircuitBreaker breaker = breaker();
+        record(breaker, true, true, true, true);
+
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertNotEquals(CircuitBreaker.REJECTED, first);
+        assertNotEquals(CircuitBreaker.REJECTED, second);
+        assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+
+        breaker.onComplete(first, false, FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        breaker.onComplete(second, false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void onComplete_whenProbeFails_shouldReopen() {
+        properties.setOpenDuration(Duration.ZERO);
+        CircuitBreaker breaker = breaker();
+        record(breaker, true, true, true, true);
+
+        breaker.onComplete(breaker.tryAcquire(), true, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertEquals(2.0, registry.counter("shareit.gateway.circuit.transitions",
+                "client", "ItemClient", "state", "open").count());
+    }
+
+    @Test
+    void onComplete_shouldIgnorePermitsFromPreviousGeneration() {
+        properties.setOpenDuration(Duration.ZERO);
+        CircuitBreaker breaker = breaker();
+        long late = breaker.tryAcquire();
+        record(breaker, true, true, true, true);
+        long probe = breaker.tryAcquire();
+
+        breaker.onComplete(late, true, FAST);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onComplete(probe, false, FAST);
+        breaker.onComplete(breaker.tryAcquire(), false, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    private CircuitBreaker breaker() {
+        return new CircuitBreaker(properties, registry, "ItemClient");
+    }
+
+    private static void record(CircuitBreaker breaker, boolean... failures) {
+        for (boolean failed : failures) {
+            breaker.onComplete(breaker.tryAcquire(), failed, FAST);
+        }
+    }
+}
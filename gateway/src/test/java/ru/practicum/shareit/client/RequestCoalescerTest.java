@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+    private static final URI ITEM = URI.create("http://server/items/1");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(Duration.ofMillis(100), registry, "ItemClient");
+    private final AtomicInteger calls = new AtomicInteger();
+    private final CompletableFuture<ResponseEntity<Object>> server = new CompletableFuture<>();
+
+    @Test
+    void execute_shouldShareOneServerCallBetweenIdenticalRequests() {
+        CompletableFuture<ResponseEntity<Object>> leader = coalescer.execute(ITEM, 1L, this::call);
+        CompletableFuture<ResponseEntity<Object>> follower = coalescer.execute(ITEM, 1L, this::call);
+        coalescer.execute(ITEM, 2L, this::call);
+
+        server.complete(ResponseEntity.ok("Дрель"));
+
+        assertEquals(2, calls.get());
+        assertEquals("Дрель", leader.join().getBody());
+        assertEquals("Дрель", follower.join().getBody());
+        assertEquals(2.0, registry.counter("shareit.gateway.coalescing.requests",
+                "client", "ItemClient", "role", "leader").count());
+        assertEquals(1.0, registry.counter("shareit.gateway.coalescing.requests",
+                "client", "ItemClient", "role", "follower").count());
+    }
+
+    @Test
+    void execute_shouldStartNewServerCallOnceTheFlightLanded() {
+        coalescer.execute(ITEM, 1L, this::call);
+        server.complete(ResponseEntity.ok("Дрель"));
+
+        coalescer.execute(ITEM, 1L, this::call);
+
+        assertEquals(2, calls.get());
+        assertEquals(0.0, registry.get("shareit.gateway.coalescing.in-flight").gauge().value());
+    }
+
+    @Test
+    void execute_shouldBufferStreamedBodyOnlyWhenFollowersJoined() {
+        CompletableFuture<ResponseEntity<Object>> leader = coalescer.execute(ITEM, 1L, this::call);
+        CompletableFuture<ResponseEntity<Object>> follower = coalescer.execute(ITEM, 1L, this::call);
+        server.complete(streamed("{\"id\":1}"));
+
+        assertArrayEquals(bytes("{\"id\":1}"), (byte[]) leader.join().getBody());
+        assertArrayEquals(bytes("{\"id\":1}"), (byte[]) follower.join().getBody());
+
+        CompletableFuture<ResponseEntity<Object>> alone = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<Object>> single = coalescer.execute(ITEM, 1L, () -> alone);
+        alone.complete(streamed("{\"id\":1}"));
+
+        assertInstanceOf(InputStreamResource.class, single.join().getBody());
+    }
+
+    @Test
+    void execute_shouldTimeOutFollowersWithoutCuttingTheLeader() {
+        CompletableFuture<ResponseEntity<Object>> leader = coalescer.execute(ITEM, 1L, this::call);
+        CompletableFuture<ResponseEntity<Object>> follower = coalescer.execute(ITEM, 1L, this::call);
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, follower.join().getStatusCode());
+        assertFalse(leader.isDone());
+        assertEquals(1.0, registry.counter("shareit.gateway.coalescing.timeouts", "client", "ItemClient").count());
+
+        server.complete(ResponseEntity.ok("Дрель"));
+        assertEquals("Дрель", leader.join().getBody());
+    }
+
+    @Test
+    void execute_shouldPropagateServerFailureToFollowers() {
+        CompletableFuture<ResponseEntity<Object>> leader = coalescer.execute(ITEM, 1L, this::call);
+        CompletableFuture<ResponseEntity<Object>> follower = coalescer.execute(ITEM, 1L, this::call);
+
+        server.completeExceptionally(new IllegalStateException("Сервер недоступен"));
+
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, leader::get).getCause());
+        assertInstanceOf(IllegalStateException.class, assertThrows(ExecutionException.class, follower::get).getCause());
+    }
+
+    @Test
+    void execute_whenCallThrows_shouldFailLeaderAndForgetTheFlight() {
+        CompletableFuture<ResponseEntity<Object>> leader = coalescer.execute(ITEM, 1L, () -> {
+            throw new IllegalStateException("Пул исчерпан");
+        });
+
+        assertTrue(leader.isCompletedExceptionally());
+        coalescer.execute(ITEM, 1L, this::call);
+        assertEquals(1, calls.get());
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> call() {
+        calls.incrementAndGet();
+        return server;
+    }
+
+    private static ResponseEntity<Object> streamed(String body) {
+        return ResponseEntity.ok(new InputStreamResource(new ByteArrayInputStream(bytes(body))));
+    }
+
+    private static byte[] bytes(String body) {
+        return body.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.shareit.exception.ErrorHandler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitInterceptorTest {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final RateLimitProperties properties = new RateLimitProperties();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<ConnPoolControl<HttpRoute>> pools = new ArrayList<>();
+
+    @Test
+    void preHandle_shouldRejectOverBurstWithRetryAfter() throws Exception {
+        properties.getDefaults().setPermitsPerSecond(0.5);
+        properties.getDefaults().setBurst(2);
+        MockMvc mvc = mvc();
+
+        request(mvc, "/items/1", 1L).andExpect(status().isOk());
+        request(mvc, "/items/2", 1L).andExpect(status().isOk());
+
+        request(mvc, "/items/3", 1L)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(jsonPath("$.error").value("Превышен лимит запросов"));
+        request(mvc, "/items/1", 2L).andExpect(status().isOk());
+        assertEquals(1.0, registry.counter("shareit.gateway.rate-limit.rejected",
+                "route", "GET /items/{itemId}", "reason", "rate").count());
+    }
+
+    @Test
+    void preHandle_shouldApplyRouteSpecificLimit() throws Exception {
+        RateLimitProperties.Limit search = new RateLimitProperties.Limit();
+        search.setPermitsPerSecond(0.01);
+        search.setBurst(1);
+        properties.getRoutes().put("/items/search", search);
+        MockMvc mvc = mvc();
+
+        request(mvc, "/items/search", 1L).andExpect(status().isOk());
+        request(mvc, "/items/search", 1L).andExpect(status().isTooManyRequests());
+        request(mvc, "/items/1", 1L).andExpect(status().isOk());
+    }
+
+    @Test
+    void preHandle_shouldKeyAnonymousClientsByTrustedHeaderOnly() throws Exception {
+        properties.getDefaults().setBurst(1);
+        properties.getDefaults().setPermitsPerSecond(0.01);
+        MockMvc direct = mvc();
+
+        direct.perform(get("/items/1").header("X-Forwarded-For", "10.0.0.1")).andExpect(status().isOk());
+        direct.perform(get("/items/1").header("X-Forwarded-For", "10.0.0.2"))
+                .andExpect(status().isTooManyRequests());
+
+        properties.setTrustedClientHeader("X-Forwarded-For");
+        MockMvc proxied = mvc();
+
+        proxied.perform(get("/items/1").header("X-Forwarded-For", "10.0.0.1, 172.16.0.1"))
+                .andExpect(status().isOk());
+        proxied.perform(get("/items/1").header("X-Forwarded-For", "10.0.0.2")).andExpect(status().isOk());
+        proxied.perform(get("/items/1").header("X-Forwarded-For", "10.0.0.1")).andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void preHandle_shouldShedOnlyWhenRequestsWaitForServerConnection() throws Exception {
+        properties.setShedRetryAfter(Duration.ofSeconds(3));
+        ConnPoolControl<HttpRoute> pool = pool();
+        pools.add(pool);
+        MockMvc mvc = mvc();
+
+        when(pool.getTotalStats()).thenReturn(new PoolStats(10, 0, 0, 10));
+        request(mvc, "/items/1", 1L).andExpect(status().isOk());
+
+        when(pool.getTotalStats()).thenReturn(new PoolStats(10, 1, 0, 10));
+        request(mvc, "/items/1", 1L)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "3"));
+        assertEquals(1.0, registry.counter("shareit.gateway.rate-limit.rejected",
+                "route", "GET /items/{itemId}", "reason", "saturated").count());
+    }
+
+    private MockMvc mvc() {
+        return MockMvcBuilders.standaloneSetup(new TestController())
+                .addInterceptors(new RateLimitInterceptor(properties, pools, registry))
+                .setControllerAdvice(new ErrorHandler())
+                .build();
+    }
+
+    private static ResultActions request(MockMvc mvc, String path, long userId) throws Exception {
+        return mvc.perform(get(path).header(USER_ID_HEADER, userId));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ConnPoolControl<HttpRoute> pool() {
+        return mock(ConnPoolControl.class);
+    }
+
+    @RestController
+    static class TestController {
+        @GetMapping("/items/search")
+        String search() {
+            return "[]";
+        }
+
+        @GetMapping("/items/{itemId}")
+        String item(@PathVariable Long itemId) {
+            return "{}";
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedTokenBucketsTest {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final StripedTokenBuckets buckets = new StripedTokenBuckets(1024);
+    private final RateLimitProperties.Limit limit = limit(10, 3);
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenReportWait() {
+        assertEquals(0, buckets.tryAcquire("user:1", limit, 0));
+        assertEquals(0, buckets.tryAcquire("user:1", limit, 0));
+        assertEquals(0, buckets.tryAcquire("user:1", limit, 0));
+
+        assertEquals(INTERVAL, buckets.tryAcquire("user:1", limit, 0));
+        assertEquals(INTERVAL / 2, buckets.tryAcquire("user:1", limit, INTERVAL / 2));
+    }
+
+    @Test
+    void tryAcquire_shouldRefillAtConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("user:1", limit, 0);
+        }
+
+        assertEquals(0, buckets.tryAcquire("user:1", limit, INTERVAL));
+        assertEquals(INTERVAL, buckets.tryAcquire("user:1", limit, INTERVAL));
+        assertEquals(0, buckets.tryAcquire("user:1", limit, 10 * INTERVAL));
+        assertEquals(0, buckets.tryAcquire("user:1", limit, 10 * INTERVAL));
+        assertEquals(0, buckets.tryAcquire("user:1", limit, 10 * INTERVAL));
+        assertTrue(buckets.tryAcquire("user:1", limit, 10 * INTERVAL) > 0);
+    }
+
+    @Test
+    void tryAcquire_shouldKeepSeparateBudgetsPerKey() {
+        for (int i = 0; i < 3; i++) {
+            buckets.tryAcquire("user:1", limit, 0);
+        }
+
+        assertTrue(buckets.tryAcquire("user:1", limit, 0) > 0);
+        assertEquals(0, buckets.tryAcquire("user:2", limit, 0));
+    }
+
+    @Test
+    void tryAcquire_whenKeysCollide_shouldShareBudget() {
+        StripedTokenBuckets single = new StripedTokenBuckets(1);
+        RateLimitProperties.Limit one = limit(1, 1);
+        String first = "Aa";
+        String second = "BB";
+        assertEquals(first.hashCode(), second.hashCode());
+
+        assertEquals(0, single.tryAcquire(first, one, 0));
+        assertTrue(single.tryAcquire(second, one, 0) > 0);
+    }
+
+    private static RateLimitProperties.Limit limit(double permitsPerSecond, int burst) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setPermitsPerSecond(permitsPerSecond);
+        limit.setBurst(burst);
+        return limit;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.regex.Pattern;
+
+@Component
+public class ConditionalGetFilter extends ShallowEtagHeaderFilter {
+    private static final Pattern CONDITIONAL_PATHS = Pattern.compile("/(items|users|requests)/\\d+");
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !HttpMethod.GET.matches(request.getMethod()) || !CONDITIONAL_PATHS.matcher(path).matches();
+    }
+
+    @Override
+    protected String generateETagHeaderValue(InputStream inputStream, boolean isWeak) throws IOException {
+        return (isWeak ? "W/" : "") + etag(inputStream.readAllBytes());
+    }
+
+    public static String etag(byte[] body) {
+        return "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ArchivedBookingRepository extends JpaRepository<ArchivedBooking, Long> {
+
+    String ARCHIVED_RESPONSE = "SELECT new ru.practicum.shareit.booking.BookingResponseDTO(" +
+            "b.id, i.id, i.name, b.booker.id, b.start, b.end, b.status) FROM ArchivedBooking b JOIN b.item i";
+
+    @Query(ARCHIVED_RESPONSE + " WHERE b.booker.id = :bookerId" + BookingRepository.KEYSET)
+    List<BookingResponseDTO> findByBookerId(Long bookerId, LocalDateTime cursorStart, Long cursorId, Limit limit);
+
+    @Query(ARCHIVED_RESPONSE + " WHERE b.booker.id = :bookerId AND b.status = :status" + BookingRepository.KEYSET)
+    List<BookingResponseDTO> findByBookerIdAndStatus(Long bookerId, BookingStatus status,
+                                                     LocalDateTime cursorStart, Long cursorId, Limit limit);
+
+    @Query(ARCHIVED_RESPONSE + " WHERE b.ownerId = :ownerId" + BookingRepository.KEYSET)
+    List<BookingResponseDTO> findByOwnerId(Long ownerId, LocalDateTime cursorStart, Long cursorId, Limit limit);
+
+    @Query(ARCHIVED_RESPONSE + " WHERE b.ownerId = :ownerId AND b.status = :status" + BookingRepository.KEYSET)
+    List<BookingResponseDTO> findByOwnerIdAndStatus(Long ownerId, BookingStatus status,
+                                                    LocalDateTime cursorStart, Long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<ArchivedBooking> findWithItemById(Long id);
+
+    @Query("SELECT DISTINCT b.item.id FROM ArchivedBooking b WHERE b.booker.id = :bookerId")
+    List<Long> findItemIdsByBookerId(@Param("bookerId") Long bookerId);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedBooking b WHERE b.booker.id = :bookerId")
+    int deleteByBookerId(@Param("bookerId") Long bookerId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO bookings_archive (id, start_date, end_date, item_id, booker_id, owner_id, status, version)
+            SELECT b.id, b.start_date, b.end_date, b.item_id, b.booker_id, b.owner_id, b.status, b.version
+            FROM bookings b
+            WHERE b.id IN (:bookingIds)""",
+            nativeQuery = true)
+    int copyFromBookings(@Param("bookingIds") Collection<Long> bookingIds);
+}
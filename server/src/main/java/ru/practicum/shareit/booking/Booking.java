@@ -35,7 +35,21 @@ public class Booking {
     @JoinColumn(name = "booker_id", nullable = false)
     private User booker;
 
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "status", nullable = false)
     private BookingStatus status;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @PrePersist
+    void fillOwner() {
+        if (ownerId == null) {
+            ownerId = item.getOwner().getId();
+        }
+    }
 }
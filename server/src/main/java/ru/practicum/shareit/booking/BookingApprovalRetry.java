@@ -0,0 +1,76 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ConflictException;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+@Component
+@Slf4j
+public class BookingApprovalRetry {
+    private static final String CONFLICT_MESSAGE = "Бронирование изменено параллельно, повторите запрос";
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Counter conflicts;
+    private final Counter retries;
+
+    public BookingApprovalRetry(PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking-approval.max-attempts:3}") int maxAttempts,
+                                @Value("${shareit.booking-approval.backoff:20ms}") Duration backoff,
+                                MeterRegistry registry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.conflicts = Counter.builder("shareit.booking.approval.conflicts")
+                .description("Конфликты версий при подтверждении бронирований")
+                .register(registry);
+        this.retries = Counter.builder("shareit.booking.approval.retries")
+                .description("Повторные попытки подтверждения бронирований после конфликта версий")
+                .register(registry);
+    }
+
+    public <T> T execute(Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                throw new ConflictException(CONFLICT_MESSAGE);
+            }
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    log.warn("Подтверждение бронирования не удалось после {} попыток: {}", attempt, e.getMessage());
+                    throw new ConflictException(CONFLICT_MESSAGE);
+                }
+                retries.increment();
+                log.debug("Конфликт версий при подтверждении бронирования, попытка {} из {}", attempt, maxAttempts);
+                pause(attempt);
+            }
+        }
+    }
+
+    private void pause(int attempt) {
+        try {
+            Thread.sleep(backoff.multipliedBy(attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException(CONFLICT_MESSAGE);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final Counter archived;
+
+    public BookingArchiver(BookingRepository bookingRepository,
+                           ArchivedBookingRepository archivedBookingRepository,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${shareit.booking-archive.retention:P30D}") Duration retention,
+                           @Value("${shareit.booking-archive.batch-size:1000}") int batchSize,
+                           MeterRegistry registry) {
+        this.bookingRepository = bookingRepository;
+        this.archivedBookingRepository = archivedBookingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.archived = Counter.builder("shareit.booking.archived")
+                .description("Бронирования, перенесённые в архив")
+                .register(registry);
+    }
+
+    public LocalDateTime horizon(LocalDateTime now) {
+        return now.minus(retention);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking-archive.interval:PT1H}",
+            fixedDelayString = "${shareit.booking-archive.interval:PT1H}")
+    public void archive() {
+        LocalDateTime cutoff = horizon(LocalDateTime.now());
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            log.info("В архив перенесено {} бронирований, завершившихся до {}", total, cutoff);
+        }
+    }
+
+    int archiveBatch(LocalDateTime cutoff) {
+        List<Long> ids = bookingRepository.lockIdsByEndBefore(cutoff, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archivedBookingRepository.copyFromBookings(ids);
+        bookingRepository.deleteByIdIn(ids);
+        archived.increment(ids.size());
+        return ids.size();
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -14,6 +15,7 @@ import java.util.List;
 public class BookingController {
     private final BookingService bookingService;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
     @PostMapping
     public BookingResponseDTO createBooking(
@@ -32,6 +34,15 @@ public class BookingController {
         return bookingService.approveBooking(ownerId, bookingId, approved);
     }
 
+    @PatchMapping
+    public List<BookingResponseDTO> approveBookings(
+            @RequestHeader(USER_ID_HEADER) Long ownerId,
+            @RequestParam List<Long> ids,
+            @RequestParam Boolean approved) {
+        log.info("Подтверждение бронирований {} пользователем {} с approved={}", ids, ownerId, approved);
+        return bookingService.approveBookings(ownerId, ids, approved);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingResponseDTO getBookingById(
             @RequestHeader(USER_ID_HEADER) Long userId,
@@ -41,20 +52,45 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingResponseDTO> getBookingsByUser(
+    public ResponseEntity<List<BookingResponseDTO>> getBookingsByUser(
             @RequestHeader(USER_ID_HEADER) Long userId,
-            @RequestParam(defaultValue = "ALL") String state) {
-        log.info("Получение списка бронирований пользователя {} с state={}", userId, state);
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Получение списка бронирований пользователя {} с state={}, cursor={}, size={}", userId, state, cursor, size);
         BookingState bookingState = BookingState.from(state);
-        return bookingService.getBookingsByUser(userId, bookingState);
+        return toResponse(bookingService.getBookingsByUser(userId, bookingState, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingResponseDTO> getBookingsByOwner(
+    public ResponseEntity<List<BookingResponseDTO>> getBookingsByOwner(
             @RequestHeader(USER_ID_HEADER) Long ownerId,
-            @RequestParam(defaultValue = "ALL") String state) {
-        log.info("Получение списка бронирований для вещей владельца {} с state={}", ownerId, state);
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Получение списка бронирований для вещей владельца {} с state={}, cursor={}, size={}",
+                ownerId, state, cursor, size);
         BookingState bookingState = BookingState.from(state);
-        return bookingService.getBookingsByOwner(ownerId, bookingState);
+        return toResponse(bookingService.getBookingsByOwner(ownerId, bookingState, cursor, size));
+    }
+
+    @GetMapping("/stats")
+    public BookingStatsDTO getBookingStatsByUser(@RequestHeader(USER_ID_HEADER) Long userId) {
+        log.info("Получение статистики бронирований пользователя {}", userId);
+        return bookingService.getBookingStats(userId, BookingRole.BOOKER);
+    }
+
+    @GetMapping("/owner/stats")
+    public BookingStatsDTO getBookingStatsByOwner(@RequestHeader(USER_ID_HEADER) Long ownerId) {
+        log.info("Получение статистики бронирований для вещей владельца {}", ownerId);
+        return bookingService.getBookingStats(ownerId, BookingRole.OWNER);
+    }
+
+    private ResponseEntity<List<BookingResponseDTO>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "booking_counter_deltas")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingCounterDelta {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "role", nullable = false)
+    private BookingRole role;
+
+    @Column(name = "effective_at")
+    private LocalDateTime effectiveAt;
+
+    @Column(name = "rolled_up", nullable = false)
+    private boolean rolledUp;
+
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    @Column(name = "waiting", nullable = false)
+    private long waiting;
+
+    @Column(name = "rejected", nullable = false)
+    private long rejected;
+
+    @Column(name = "started", nullable = false)
+    private long started;
+
+    @Column(name = "ended", nullable = false)
+    private long ended;
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BookingCounterDeltaRepository extends JpaRepository<BookingCounterDelta, Long> {
+    String INSERT_WITHDRAWN = """
+            INSERT INTO booking_counter_deltas (user_id, role, effective_at, rolled_up, total, waiting, rejected, started, ended)
+            SELECT CASE r.role WHEN 'OWNER' THEN b.owner_id ELSE b.booker_id END, r.role,
+                   CASE p.phase WHEN 1 THEN b.start_date WHEN 2 THEN b.end_date END, FALSE,
+                   CASE p.phase WHEN 0 THEN -1 ELSE 0 END,
+                   CASE WHEN p.phase = 0 AND b.status = 'WAITING' THEN -1 ELSE 0 END,
+                   CASE WHEN p.phase = 0 AND b.status = 'REJECTED' THEN -1 ELSE 0 END,
+                   CASE p.phase WHEN 1 THEN -1 ELSE 0 END,
+                   CASE p.phase WHEN 2 THEN -1 ELSE 0 END
+            FROM (SELECT item_id, booker_id, owner_id, status, start_date, end_date FROM bookings
+                  UNION ALL
+                  SELECT item_id, booker_id, owner_id, status, start_date, end_date FROM bookings_archive) b
+            CROSS JOIN (VALUES ('BOOKER'), ('OWNER')) AS r(role)
+            CROSS JOIN (VALUES (0), (1), (2)) AS p(phase)
+            """;
+
+    @Query("SELECT COALESCE(SUM(d.total), 0) AS total, " +
+            "COALESCE(SUM(d.waiting), 0) AS waiting, " +
+            "COALESCE(SUM(d.rejected), 0) AS rejected, " +
+            "COALESCE(SUM(d.started), 0) AS started, " +
+            "COALESCE(SUM(CASE WHEN d.effectiveAt IS NULL OR d.effectiveAt < :now THEN d.ended ELSE 0 END), 0) AS ended " +
+            "FROM BookingCounterDelta d " +
+            "WHERE d.userId = :userId AND d.role = :role " +
+            "AND (d.effectiveAt IS NULL OR d.effectiveAt <= :now)")
+    BookingCountersView sumEffective(@Param("userId") Long userId,
+                                     @Param("role") BookingRole role,
+                                     @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM BookingCounterDelta d " +
+            "WHERE d.rolledUp = FALSE AND (d.effectiveAt IS NULL OR d.effectiveAt < :now) " +
+            "ORDER BY d.id")
+    List<BookingCounterDelta> lockRollable(@Param("now") LocalDateTime now, Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BookingCounterDelta> findFirstByUserIdAndRoleAndRolledUpTrueOrderByIdAsc(Long userId, BookingRole role);
+
+    @Modifying
+    @Query("DELETE FROM BookingCounterDelta d WHERE d.id IN :ids")
+    void deleteByIdIn(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO booking_counter_deltas (user_id, role, rolled_up, total, waiting, rejected, started, ended)
+            SELECT b.booker_id, 'BOOKER', FALSE, 0, -1, 0, 0, 0 FROM bookings b WHERE b.id IN (:bookingIds)
+            UNION ALL
+            SELECT b.owner_id, 'OWNER', FALSE, 0, -1, 0, 0, 0 FROM bookings b WHERE b.id IN (:bookingIds)
+            """, nativeQuery = true)
+    int insertWaitingWithdrawn(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying
+    @Query(value = INSERT_WITHDRAWN + "WHERE b.item_id = :itemId", nativeQuery = true)
+    int insertWithdrawnForItem(@Param("itemId") Long itemId);
+
+    @Modifying
+    @Query(value = INSERT_WITHDRAWN + "WHERE b.owner_id = :userId OR b.booker_id = :userId", nativeQuery = true)
+    int insertWithdrawnForUser(@Param("userId") Long userId);
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking;
+
+public interface BookingCountersView {
+    Long getTotal();
+
+    Long getWaiting();
+
+    Long getRejected();
+
+    Long getStarted();
+
+    Long getEnded();
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+public class BookingExpirySweeper {
+    private final BookingRepository bookingRepository;
+    private final BookingStatsService bookingStatsService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter expired;
+
+    public BookingExpirySweeper(BookingRepository bookingRepository,
+                                BookingStatsService bookingStatsService,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking-expiry.batch-size:500}") int batchSize,
+                                MeterRegistry registry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingStatsService = bookingStatsService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.expired = Counter.builder("shareit.booking.expired")
+                .description("Бронирования, отменённые из-за истечения срока ожидания")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking-expiry.sweep-interval:PT1M}",
+            fixedDelayString = "${shareit.booking-expiry.sweep-interval:PT1M}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int swept;
+        do {
+            swept = transactionTemplate.execute(status -> sweepBatch(now));
+            total += swept;
+        } while (swept == batchSize);
+        if (total > 0) {
+            log.info("Отменено {} неподтверждённых бронирований с истёкшим началом", total);
+        }
+    }
+
+    int sweepBatch(LocalDateTime now) {
+        List<Long> ids = bookingRepository.lockIdsByStatusAndStartBefore(BookingStatus.WAITING, now, Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        bookingRepository.updateStatus(ids, BookingStatus.CANCELED);
+        bookingStatsService.onExpired(ids);
+        expired.increment(ids.size());
+        return ids.size();
+    }
+}
@@ -11,6 +11,7 @@ public class BookingMapper {
         return Booking.builder()
                 .item(item)
                 .booker(booker)
+                .ownerId(item.getOwner().getId())
                 .start(dto.getStart())
                 .end(dto.getEnd())
                 .status(BookingStatus.WAITING)
@@ -33,6 +34,16 @@ public class BookingMapper {
                 booking.getStatus()
         );
     }
-}
-
 
+    public BookingResponseDTO toBookingResponseDTO(ArchivedBooking booking) {
+        return new BookingResponseDTO(
+                booking.getId(),
+                booking.getItem().getId(),
+                booking.getItem().getName(),
+                booking.getBooker().getId(),
+                booking.getStart(),
+                booking.getEnd(),
+                booking.getStatus()
+        );
+    }
+}
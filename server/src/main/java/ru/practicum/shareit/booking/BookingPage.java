@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class BookingPage {
+    List<BookingResponseDTO> bookings;
+    String nextCursor;
+}
@@ -1,58 +1,138 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findByBookerId(Long bookerId, Pageable pageable);
+    String BOOKING_RESPONSE = "SELECT new ru.practicum.shareit.booking.BookingResponseDTO(" +
+            "b.id, i.id, i.name, b.booker.id, b.start, b.end, b.status) FROM Booking b JOIN b.item i";
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.start <= :now AND b.end >= :now")
-    List<Booking> findCurrentByBookerId(Long bookerId, LocalDateTime now, Pageable pageable);
+    String KEYSET = " AND (b.start < :cursorStart OR (b.start = :cursorStart AND b.id < :cursorId))" +
+            " ORDER BY b.start DESC, b.id DESC";
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.end < :now")
-    List<Booking> findPastByBookerId(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_RESPONSE + " WHERE b.booker.id = :bookerId" + KEYSET)
+    List<BookingResponseDTO> findByBookerId(Long bookerId, LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND b.start > :now")
-    List<Booking> findFutureByBookerId(Long bookerId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_RESPONSE + " WHERE b.booker.id = :bookerId AND b.start <= :now AND b.end >= :now" + KEYSET)
+    List<BookingResponseDTO> findCurrentByBookerId(Long bookerId, LocalDateTime now,
+                                        LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_RESPONSE + " WHERE b.booker.id = :bookerId AND b.end < :now" + KEYSET)
+    List<BookingResponseDTO> findPastByBookerId(Long bookerId, LocalDateTime now,
+                                     LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId")
-    List<Booking> findByOwnerId(Long ownerId, Pageable pageable);
+    @Query(BOOKING_RESPONSE + " WHERE b.booker.id = :bookerId AND b.start > :now" + KEYSET)
+    List<BookingResponseDTO> findFutureByBookerId(Long bookerId, LocalDateTime now,
+                                       LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start <= :now AND b.end >= :now")
-    List<Booking> findCurrentByOwnerId(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_RESPONSE + " WHERE b.booker.id = :bookerId AND b.status = :status" + KEYSET)
+    List<BookingResponseDTO> findByBookerIdAndStatus(Long bookerId, BookingStatus status,
+                                          LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.end < :now")
-    List<Booking> findPastByOwnerId(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_RESPONSE + " WHERE b.ownerId = :ownerId" + KEYSET)
+    List<BookingResponseDTO> findByOwnerId(Long ownerId, LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND b.start > :now")
-    List<Booking> findFutureByOwnerId(Long ownerId, LocalDateTime now, Pageable pageable);
+    @Query(BOOKING_RESPONSE + " WHERE b.ownerId = :ownerId AND b.start <= :now AND b.end >= :now" + KEYSET)
+    List<BookingResponseDTO> findCurrentByOwnerId(Long ownerId, LocalDateTime now,
+                                       LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    List<Booking> findByItem_OwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+    @Query(BOOKING_RESPONSE + " WHERE b.ownerId = :ownerId AND b.end < :now" + KEYSET)
+    List<BookingResponseDTO> findPastByOwnerId(Long ownerId, LocalDateTime now,
+                                    LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("SELECT b FROM Booking b " +
-            "WHERE b.item.id IN :itemIds " +
-            "AND b.end < :now " +
-            "AND b.status = 'APPROVED' " +
-            "ORDER BY b.end DESC")
-    List<Booking> findLastBookingsForItems(@Param("itemIds") List<Long> itemIds,
-                                           @Param("now") LocalDateTime now);
+    @Query(BOOKING_RESPONSE + " WHERE b.ownerId = :ownerId AND b.start > :now" + KEYSET)
+    List<BookingResponseDTO> findFutureByOwnerId(Long ownerId, LocalDateTime now,
+                                      LocalDateTime cursorStart, Long cursorId, Limit limit);
+
+    @Query(BOOKING_RESPONSE + " WHERE b.ownerId = :ownerId AND b.status = :status" + KEYSET)
+    List<BookingResponseDTO> findByOwnerIdAndStatus(Long ownerId, BookingStatus status,
+                                         LocalDateTime cursorStart, Long cursorId, Limit limit);
 
-    @Query("SELECT b FROM Booking b " +
+    @Query(value = """
+            SELECT ranked.item_id AS itemId, ranked.id AS bookingId, ranked.booker_id AS bookerId,
+                   ranked.kind AS kind,
+                   ranked.approved_count + (
+                       SELECT COUNT(*) FROM bookings_archive x
+                       WHERE x.item_id = ranked.item_id
+                       AND x.status = 'APPROVED'
+                   ) AS approvedCount,
+                   ranked.valid_until AS validUntil
+            FROM (
+                SELECT classified.*,
+                       ROW_NUMBER() OVER (
+                           PARTITION BY classified.item_id, classified.kind
+                           ORDER BY CASE WHEN classified.kind = 'LAST' THEN classified.end_date END DESC,
+                                    CASE WHEN classified.kind <> 'LAST' THEN classified.start_date END ASC
+                       ) AS position,
+                       SUM(classified.hot) OVER (PARTITION BY classified.item_id) AS approved_count,
+                       MIN(CASE
+                               WHEN classified.kind = 'NEXT' THEN classified.start_date
+                               WHEN classified.kind = 'CURRENT' THEN classified.end_date
+                           END) OVER (PARTITION BY classified.item_id) AS valid_until
+                FROM (
+                    SELECT b.item_id, b.id, b.booker_id, b.start_date, b.end_date,
+                           CASE
+                               WHEN b.end_date < :now THEN 'LAST'
+                               WHEN b.start_date > :now THEN 'NEXT'
+                               ELSE 'CURRENT'
+                           END AS kind,
+                           1 AS hot
+                    FROM bookings b
+                    WHERE b.item_id IN (:itemIds)
+                    AND b.status = 'APPROVED'
+                    UNION ALL
+                    SELECT a.item_id, a.id, a.booker_id, a.start_date, a.end_date, 'LAST' AS kind, 0 AS hot
+                    FROM bookings_archive a
+                    WHERE a.item_id IN (:itemIds)
+                    AND a.status = 'APPROVED'
+                    AND NOT EXISTS (
+                        SELECT 1 FROM bookings h
+                        WHERE h.item_id = a.item_id
+                        AND h.status = 'APPROVED'
+                        AND h.end_date < :now
+                    )
+                ) classified
+            ) ranked
+            WHERE ranked.position = 1""",
+            nativeQuery = true)
+    List<ItemBookingView> findBookingSummariesForItems(@Param("itemIds") List<Long> itemIds,
+                                                       @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b " +
+            "WHERE b.item.id = :itemId " +
+            "AND b.status IN :statuses " +
+            "AND b.start < :end " +
+            "AND b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end,
+                              @Param("statuses") List<BookingStatus> statuses);
+
+    @Query("SELECT b.item.id AS itemId, b.start AS busyFrom, b.end AS busyTo FROM Booking b " +
             "WHERE b.item.id IN :itemIds " +
-            "AND b.start > :now " +
-            "AND b.status = 'APPROVED' " +
-            "ORDER BY b.start ASC")
-    List<Booking> findNextBookingsForItems(@Param("itemIds") List<Long> itemIds,
-                                           @Param("now") LocalDateTime now);
+            "AND b.status IN :statuses " +
+            "AND b.start < :to " +
+            "AND b.end > :from " +
+            "ORDER BY b.item.id, b.start")
+    List<BookingIntervalView> findIntervals(@Param("itemIds") List<Long> itemIds,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            @Param("statuses") List<BookingStatus> statuses);
 
     @Query(value = """
             SELECT EXISTS (
@@ -61,6 +141,12 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                 AND booker_id = :userId
                 AND status = 'APPROVED'
                 AND end_date < :time
+            ) OR EXISTS (
+                SELECT 1 FROM bookings_archive
+                WHERE item_id = :itemId
+                AND booker_id = :userId
+                AND status = 'APPROVED'
+                AND end_date < :time
             )""",
             nativeQuery = true)
     boolean hasUserBookedItem(
@@ -74,5 +160,35 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     OffsetDateTime getCurrentDbTime();
 
     List<Booking> findByItemIdAndBookerIdAndEndBefore(Long itemId, Long bookerId, LocalDateTime end);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    List<Booking> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT b.id FROM Booking b WHERE b.status = :status AND b.start < :now ORDER BY b.id")
+    List<Long> lockIdsByStatusAndStartBefore(@Param("status") BookingStatus status,
+                                             @Param("now") LocalDateTime now,
+                                             Limit limit);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT b.id FROM Booking b WHERE b.end < :cutoff ORDER BY b.id")
+    List<Long> lockIdsByEndBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.booker.id = :bookerId")
+    List<Long> findItemIdsByBookerId(@Param("bookerId") Long bookerId);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.booker.id = :bookerId")
+    int deleteByBookerId(@Param("bookerId") Long bookerId);
+
+    @Modifying
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 WHERE b.id IN :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
 }
 
@@ -19,6 +19,11 @@ public class BookingResponseDTO {
     private LocalDateTime end;
     private BookingStatus status;
 
+    public BookingResponseDTO(Long id, Long itemId, String itemName, Long bookerId,
+                              LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        this(id, new ItemDTO(itemId, itemName), new BookerDTO(bookerId), start, end, status);
+    }
+
     @Data
     @AllArgsConstructor
     @NoArgsConstructor
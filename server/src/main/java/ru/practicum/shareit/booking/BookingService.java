@@ -1,10 +1,9 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -15,18 +14,30 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingService {
-    private static final int PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BULK_SIZE = 100;
+    private static final Comparator<BookingResponseDTO> NEWEST_FIRST = Comparator
+            .comparing(BookingResponseDTO::getStart)
+            .thenComparing(BookingResponseDTO::getId)
+            .reversed();
 
     private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingArchiver bookingArchiver;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingStatsService bookingStatsService;
+    private final BookingApprovalRetry bookingApprovalRetry;
 
 
     @Transactional
@@ -34,7 +45,7 @@ public class BookingService {
         User booker = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        Item item = itemRepository.findById(bookingRequestDTO.getItemId())
+        Item item = itemRepository.findByIdForUpdate(bookingRequestDTO.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь не найдена"));
 
         if (!item.getAvailable()) {
@@ -43,108 +54,194 @@ public class BookingService {
         if (item.getOwner().getId().equals(userId)) {
             throw new ConflictException("Владелец не может бронировать свою вещь");
         }
+        if (bookingRepository.existsOverlapping(item.getId(), bookingRequestDTO.getStart(),
+                bookingRequestDTO.getEnd(), BookingStatus.BLOCKING)) {
+            throw new ConflictException("Вещь уже забронирована на выбранный период");
+        }
 
         Booking booking = BookingMapper.toBooking(bookingRequestDTO, item, booker);
         Booking savedBooking = bookingRepository.save(booking);
+        bookingStatsService.onCreated(savedBooking);
 
         return BookingMapper.toBookingResponseDTO(savedBooking);
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BookingResponseDTO approveBooking(Long ownerId, Long bookingId, Boolean approved) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
-
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
-            throw new ValidationException("Только владелец может подтверждать бронирование");
-        }
+        return bookingApprovalRetry.execute(() -> decide(ownerId, List.of(bookingId), approved)).get(0);
+    }
 
-        if (booking.getStatus() != BookingStatus.WAITING) {
-            throw new ConflictException("Бронирование уже подтверждено или отклонено");
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<BookingResponseDTO> approveBookings(Long ownerId, List<Long> bookingIds, Boolean approved) {
+        List<Long> ids = bookingIds.stream().distinct().toList();
+        if (ids.isEmpty() || ids.size() > MAX_BULK_SIZE) {
+            throw new ValidationException("Некорректное количество бронирований: " + ids.size());
         }
-
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return BookingMapper.toBookingResponseDTO(booking);
+        return bookingApprovalRetry.execute(() -> decide(ownerId, ids, approved));
     }
 
     public BookingResponseDTO getBookingById(Long userId, Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
-
-        if (!booking.getBooker().getId().equals(userId) && !booking.getItem().getOwner().getId().equals(userId)) {
-            throw new ConflictException("Нет доступа к этому бронированию");
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            ArchivedBooking archived = archivedBookingRepository.findWithItemById(bookingId)
+                    .orElseThrow(() -> new NotFoundException("Бронирование не найдено"));
+            checkAccess(userId, archived.getBooker().getId(), archived.getOwnerId());
+            return BookingMapper.toBookingResponseDTO(archived);
         }
 
+        checkAccess(userId, booking.getBooker().getId(), booking.getOwnerId());
         return BookingMapper.toBookingResponseDTO(booking);
     }
 
-    public List<BookingResponseDTO> getBookingsByUser(Long userId, BookingState bookingState) {
+    public BookingPage getBookingsByUser(Long userId, BookingState bookingState, String cursor, Integer size) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
 
-        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("start").descending());
+        BookingCursor position = BookingCursor.decode(cursor);
+        LocalDateTime start = position.getStart();
+        Long id = position.getId();
+        Limit limit = limitOf(size);
         LocalDateTime now = LocalDateTime.now();
 
-        List<Booking> bookings;
+        List<BookingResponseDTO> bookings;
 
         switch (bookingState) {
             case ALL:
-                bookings = bookingRepository.findByBookerId(userId, pageable);
+                bookings = withArchive(bookingRepository.findByBookerId(userId, start, id, limit), limit, now,
+                        () -> archivedBookingRepository.findByBookerId(userId, start, id, limit));
                 break;
             case CURRENT:
-                bookings = bookingRepository.findCurrentByBookerId(userId, now, pageable);
+                bookings = bookingRepository.findCurrentByBookerId(userId, now, start, id, limit);
                 break;
             case PAST:
-                bookings = bookingRepository.findPastByBookerId(userId, now, pageable);
+                bookings = withArchive(bookingRepository.findPastByBookerId(userId, now, start, id, limit), limit, now,
+                        () -> archivedBookingRepository.findByBookerId(userId, start, id, limit));
                 break;
             case FUTURE:
-                bookings = bookingRepository.findFutureByBookerId(userId, now, pageable);
+                bookings = bookingRepository.findFutureByBookerId(userId, now, start, id, limit);
                 break;
             case WAITING:
+                bookings = bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.WAITING, start, id, limit);
+                break;
             case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatus(userId, bookingState.toStatus(), pageable);
+                bookings = withArchive(
+                        bookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, start, id, limit), limit, now,
+                        () -> archivedBookingRepository.findByBookerIdAndStatus(userId, BookingStatus.REJECTED, start, id, limit));
                 break;
             default:
                 throw new IllegalArgumentException("Неизвестный параметр: " + bookingState);
         }
 
-        return bookings.stream()
-                .map(BookingMapper::toBookingResponseDTO)
-                .collect(Collectors.toList());
+        return toPage(bookings, size);
     }
 
-    public List<BookingResponseDTO> getBookingsByOwner(Long ownerId, BookingState bookingState) {
+    public BookingPage getBookingsByOwner(Long ownerId, BookingState bookingState, String cursor, Integer size) {
         User owner = userRepository.findById(ownerId)
                 .orElseThrow(() -> new NotFoundException("Владелец не найден"));
 
-        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by("start").descending());
+        BookingCursor position = BookingCursor.decode(cursor);
+        LocalDateTime start = position.getStart();
+        Long id = position.getId();
+        Limit limit = limitOf(size);
         LocalDateTime now = LocalDateTime.now();
 
-        List<Booking> bookings;
+        List<BookingResponseDTO> bookings;
 
         switch (bookingState) {
             case ALL:
-                bookings = bookingRepository.findByOwnerId(ownerId, pageable);
+                bookings = withArchive(bookingRepository.findByOwnerId(ownerId, start, id, limit), limit, now,
+                        () -> archivedBookingRepository.findByOwnerId(ownerId, start, id, limit));
                 break;
             case CURRENT:
-                bookings = bookingRepository.findCurrentByOwnerId(ownerId, now, pageable);
+                bookings = bookingRepository.findCurrentByOwnerId(ownerId, now, start, id, limit);
                 break;
             case PAST:
-                bookings = bookingRepository.findPastByOwnerId(ownerId, now, pageable);
+                bookings = withArchive(bookingRepository.findPastByOwnerId(ownerId, now, start, id, limit), limit, now,
+                        () -> archivedBookingRepository.findByOwnerId(ownerId, start, id, limit));
                 break;
             case FUTURE:
-                bookings = bookingRepository.findFutureByOwnerId(ownerId, now, pageable);
+                bookings = bookingRepository.findFutureByOwnerId(ownerId, now, start, id, limit);
                 break;
             case WAITING:
+                bookings = bookingRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, start, id, limit);
+                break;
             case REJECTED:
-                bookings = bookingRepository.findByItem_OwnerIdAndStatus(ownerId, bookingState.toStatus(), pageable);
+                bookings = withArchive(
+                        bookingRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, start, id, limit), limit, now,
+                        () -> archivedBookingRepository.findByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, start, id, limit));
                 break;
             default:
                 throw new IllegalArgumentException("Неизвестный параметр: " + bookingState);
         }
 
+        return toPage(bookings, size);
+    }
+
+    public BookingStatsDTO getBookingStats(Long userId, BookingRole role) {
+        return bookingStatsService.getStats(userId, role);
+    }
+
+    private List<BookingResponseDTO> decide(Long ownerId, List<Long> bookingIds, boolean approved) {
+        List<Booking> bookings = bookingRepository.findByIdInOrderByIdAsc(bookingIds);
+        if (bookings.size() != bookingIds.size()) {
+            throw new NotFoundException("Бронирование не найдено");
+        }
+
+        for (Booking booking : bookings) {
+            if (!booking.getOwnerId().equals(ownerId)) {
+                throw new ValidationException("Только владелец может подтверждать бронирование");
+            }
+            if (booking.getStatus() != BookingStatus.WAITING) {
+                throw new ConflictException("Бронирование уже подтверждено или отклонено");
+            }
+        }
+        for (Booking booking : bookings) {
+            booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        }
+
+        bookingRepository.flush();
+        bookingStatsService.onStatusChanged(bookings);
+        if (approved) {
+            itemBookingSummaryService.refresh(bookings.stream()
+                    .map(booking -> booking.getItem().getId())
+                    .distinct()
+                    .toList());
+        }
         return bookings.stream()
                 .map(BookingMapper::toBookingResponseDTO)
-                .collect(Collectors.toList());
+                .toList();
+    }
+
+    private void checkAccess(Long userId, Long bookerId, Long ownerId) {
+        if (!bookerId.equals(userId) && !ownerId.equals(userId)) {
+            throw new ConflictException("Нет доступа к этому бронированию");
+        }
+    }
+
+    private List<BookingResponseDTO> withArchive(List<BookingResponseDTO> hot, Limit limit, LocalDateTime now,
+                                                 Supplier<List<BookingResponseDTO>> archived) {
+        int max = limit.max();
+        if (hot.size() == max && !hot.get(max - 1).getStart().isBefore(bookingArchiver.horizon(now))) {
+            return hot;
+        }
+        List<BookingResponseDTO> merged = new ArrayList<>(hot);
+        merged.addAll(archived.get());
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > max ? merged.subList(0, max) : merged;
+    }
+
+    private Limit limitOf(Integer size) {
+        if (size == null || size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Некорректный размер страницы: " + size);
+        }
+        return Limit.of(size + 1);
+    }
+
+    private BookingPage toPage(List<BookingResponseDTO> bookings, int size) {
+        if (bookings.size() <= size) {
+            return new BookingPage(bookings, null);
+        }
+        List<BookingResponseDTO> page = bookings.subList(0, size);
+        return new BookingPage(page, BookingCursor.after(page.get(size - 1)).encode());
     }
 }
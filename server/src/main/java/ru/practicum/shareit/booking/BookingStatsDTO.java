@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookingStatsDTO {
+    private long all;
+    private long current;
+    private long past;
+    private long future;
+    private long waiting;
+    private long rejected;
+}
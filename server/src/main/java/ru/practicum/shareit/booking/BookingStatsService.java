@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@Slf4j
+public class BookingStatsService {
+    private static final int ROLL_OVER_BATCH_SIZE = 1000;
+
+    private final BookingCounterDeltaRepository deltaRepository;
+    private final UserRepository userRepository;
+
+    public BookingStatsDTO getStats(Long userId, BookingRole role) {
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь не найден");
+        }
+        BookingCountersView counters = deltaRepository.sumEffective(userId, role, LocalDateTime.now());
+        return BookingStatsDTO.builder()
+                .all(counters.getTotal())
+                .future(counters.getTotal() - counters.getStarted())
+                .current(counters.getStarted() - counters.getEnded())
+                .past(counters.getEnded())
+                .waiting(counters.getWaiting())
+                .rejected(counters.getRejected())
+                .build();
+    }
+
+    @Transactional
+    public void onCreated(Booking booking) {
+        List<BookingCounterDelta> deltas = new ArrayList<>();
+        for (BookingRole role : BookingRole.values()) {
+            deltas.add(delta(booking, role, null).total(1).waiting(1).build());
+            deltas.add(delta(booking, role, booking.getStart()).started(1).build());
+            deltas.add(delta(booking, role, booking.getEnd()).ended(1).build());
+        }
+        deltaRepository.saveAll(deltas);
+    }
+
+    @Transactional
+    public void onStatusChanged(List<Booking> bookings) {
+        List<BookingCounterDelta> deltas = new ArrayList<>();
+        for (Booking booking : bookings) {
+            for (BookingRole role : BookingRole.values()) {
+                if (booking.getStatus() == BookingStatus.APPROVED) {
+                    deltas.add(delta(booking, role, null).waiting(-1).build());
+                } else if (booking.getStatus() == BookingStatus.REJECTED) {
+                    deltas.add(delta(booking, role, null).waiting(-1).rejected(1).build());
+                }
+            }
+        }
+        deltaRepository.saveAll(deltas);
+    }
+
+    @Transactional
+    public void onExpired(List<Long> bookingIds) {
+        deltaRepository.insertWaitingWithdrawn(bookingIds);
+    }
+
+    @Transactional
+    public void onItemDeleted(Long itemId) {
+        deltaRepository.insertWithdrawnForItem(itemId);
+    }
+
+    @Transactional
+    public void onUserDeleted(Long userId) {
+        deltaRepository.insertWithdrawnForUser(userId);
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking-stats.roll-over-interval:PT1M}",
+            fixedDelayString = "${shareit.booking-stats.roll-over-interval:PT1M}")
+    @Transactional
+    public void rollOver() {
+        LocalDateTime now = LocalDateTime.now();
+        int rolled = 0;
+        List<BookingCounterDelta> deltas;
+        do {
+            deltas = deltaRepository.lockRollable(now, Limit.of(ROLL_OVER_BATCH_SIZE));
+            Map<List<Object>, List<BookingCounterDelta>> bySubject = deltas.stream()
+                    .collect(Collectors.groupingBy(delta -> List.of(delta.getUserId(), delta.getRole()),
+                            LinkedHashMap::new, Collectors.toList()));
+            for (List<BookingCounterDelta> subjectDeltas : bySubject.values()) {
+                BookingCounterDelta first = subjectDeltas.get(0);
+                BookingCounterDelta rollup = deltaRepository
+                        .findFirstByUserIdAndRoleAndRolledUpTrueOrderByIdAsc(first.getUserId(), first.getRole())
+                        .orElseGet(() -> BookingCounterDelta.builder()
+                                .userId(first.getUserId())
+                                .role(first.getRole())
+                                .rolledUp(true)
+                                .build());
+                for (BookingCounterDelta delta : subjectDeltas) {
+                    rollup.setTotal(rollup.getTotal() + delta.getTotal());
+                    rollup.setWaiting(rollup.getWaiting() + delta.getWaiting());
+                    rollup.setRejected(rollup.getRejected() + delta.getRejected());
+                    rollup.setStarted(rollup.getStarted() + delta.getStarted());
+                    rollup.setEnded(rollup.getEnded() + delta.getEnded());
+                }
+                deltaRepository.save(rollup);
+            }
+            if (!deltas.isEmpty()) {
+                deltaRepository.deleteByIdIn(deltas.stream().map(BookingCounterDelta::getId).toList());
+            }
+            rolled += deltas.size();
+        } while (deltas.size() == ROLL_OVER_BATCH_SIZE);
+        if (rolled > 0) {
+            log.info("Свёрнуто {} изменений счётчиков бронирований", rolled);
+        }
+    }
+
+    private BookingCounterDelta.BookingCounterDeltaBuilder delta(Booking booking, BookingRole role,
+                                                                 LocalDateTime effectiveAt) {
+        return BookingCounterDelta.builder()
+                .userId(role == BookingRole.OWNER ? booking.getOwnerId() : booking.getBooker().getId())
+                .role(role)
+                .effectiveAt(effectiveAt);
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "item_booking_summaries")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+
+    @Column(name = "approved_count", nullable = false)
+    private long approvedCount;
+
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    public boolean isStale(LocalDateTime now) {
+        return validUntil != null && validUntil.isBefore(now);
+    }
+
+    public BookingDateDTO getLastBooking() {
+        return lastBookingId == null ? null : new BookingDateDTO(lastBookingId, lastBookerId);
+    }
+
+    public BookingDateDTO getNextBooking() {
+        return nextBookingId == null ? null : new BookingDateDTO(nextBookingId, nextBookerId);
+    }
+}
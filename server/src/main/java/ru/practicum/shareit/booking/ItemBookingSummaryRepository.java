@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("SELECT s.itemId FROM ItemBookingSummary s WHERE s.validUntil < :now ORDER BY s.validUntil")
+    List<Long> findStaleItemIds(@Param("now") LocalDateTime now, Limit limit);
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.booking;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class ItemBookingSummaryService {
+    private static final int REFRESH_BATCH_SIZE = 500;
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ItemBookingSummaryService(ItemBookingSummaryRepository summaryRepository,
+                                     BookingRepository bookingRepository,
+                                     ItemRepository itemRepository,
+                                     PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Map<Long, ItemBookingSummary> findForItems(List<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, ItemBookingSummary> summaries = summaryRepository.findAllById(itemIds).stream()
+                .filter(summary -> !summary.isStale(now))
+                .collect(Collectors.toMap(ItemBookingSummary::getItemId, summary -> summary));
+        List<Long> missing = itemIds.stream()
+                .filter(itemId -> !summaries.containsKey(itemId))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            summaries.putAll(compute(missing, now));
+        }
+        return summaries;
+    }
+
+    @Transactional
+    public void onItemCreated(Long itemId) {
+        summaryRepository.save(ItemBookingSummary.builder().itemId(itemId).build());
+    }
+
+    @Transactional
+    public void refresh(Long itemId) {
+        refresh(List.of(itemId));
+    }
+
+    @Transactional
+    public void refresh(List<Long> itemIds) {
+        List<Long> locked = itemIds.stream().distinct().sorted().toList();
+        locked.forEach(itemRepository::findByIdForUpdate);
+        summaryRepository.saveAll(compute(locked, LocalDateTime.now()).values());
+    }
+
+    @Scheduled(initialDelayString = "${shareit.booking-summary.refresh-interval:PT1M}",
+            fixedDelayString = "${shareit.booking-summary.refresh-interval:PT1M}")
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        int refreshed = 0;
+        int locked;
+        do {
+            locked = transactionTemplate.execute(status -> rollForwardBatch(now));
+            refreshed += locked;
+        } while (locked > 0);
+        if (refreshed > 0) {
+            log.info("Обновлены сводки бронирований для {} вещей", refreshed);
+        }
+    }
+
+    private int rollForwardBatch(LocalDateTime now) {
+        List<Long> stale = summaryRepository.findStaleItemIds(now, Limit.of(REFRESH_BATCH_SIZE));
+        if (stale.isEmpty()) {
+            return 0;
+        }
+        List<Long> locked = itemRepository.lockIdsByIdIn(stale);
+        summaryRepository.saveAll(compute(locked, LocalDateTime.now()).values());
+        return locked.size();
+    }
+
+    private Map<Long, ItemBookingSummary> compute(List<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        if (itemIds.isEmpty()) {
+            return summaries;
+        }
+        for (Long itemId : itemIds) {
+            summaries.put(itemId, ItemBookingSummary.builder().itemId(itemId).build());
+        }
+        for (ItemBookingView booking : bookingRepository.findBookingSummariesForItems(itemIds, now)) {
+            ItemBookingSummary summary = summaries.get(booking.getItemId());
+            summary.setApprovedCount(booking.getApprovedCount());
+            summary.setValidUntil(booking.getValidUntil());
+            if ("LAST".equals(booking.getKind())) {
+                summary.setLastBookingId(booking.getBookingId());
+                summary.setLastBookerId(booking.getBookerId());
+            } else if ("NEXT".equals(booking.getKind())) {
+                summary.setNextBookingId(booking.getBookingId());
+                summary.setNextBookerId(booking.getBookerId());
+            }
+        }
+        return summaries;
+    }
+}
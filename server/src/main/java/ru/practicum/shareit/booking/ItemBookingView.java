@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking;
+
+import java.time.LocalDateTime;
+
+public interface ItemBookingView {
+    Long getItemId();
+
+    Long getBookingId();
+
+    Long getBookerId();
+
+    String getKind();
+
+    Long getApprovedCount();
+
+    LocalDateTime getValidUntil();
+}
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -8,4 +9,7 @@ import java.util.List;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByItemId(Long itemId);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.id IN :itemIds ORDER BY c.created ASC")
+    List<Comment> findWithAuthorByItemIdIn(List<Long> itemIds);
 }
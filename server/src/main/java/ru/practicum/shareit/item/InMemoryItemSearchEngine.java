@@ -0,0 +1,120 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "memory")
+@Slf4j
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private volatile ItemSearchIndex index = new ItemSearchIndex();
+    private List<ItemChangedEvent> buffered;
+
+    public InMemoryItemSearchEngine(ItemRepository itemRepository, MeterRegistry registry) {
+        this.itemRepository = itemRepository;
+        Gauge.builder("shareit.item-search.index.items", this, engine -> engine.index.size())
+                .description("Количество доступных вещей в поисковом индексе")
+                .register(registry);
+        Gauge.builder("shareit.item-search.index.terms", this, engine -> engine.index.termCount())
+                .description("Количество триграмм в поисковом индексе")
+                .register(registry);
+        Gauge.builder("shareit.item-search.index.stale", this, engine -> engine.index.stale())
+                .description("Удалённые и изменённые вещи, ссылки на которые ждут перестроения индекса")
+                .register(registry);
+        Gauge.builder("shareit.item-search.index.memory", this, engine -> engine.index.estimatedBytes())
+                .description("Оценка памяти, занимаемой поисковым индексом")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        synchronized (this) {
+            if (buffered != null) {
+                return;
+            }
+            buffered = new ArrayList<>();
+        }
+        ItemSearchIndex built = new ItemSearchIndex();
+        try {
+            long lastId = 0;
+            List<ItemSearchView> batch;
+            do {
+                batch = itemRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_BATCH_SIZE));
+                for (ItemSearchView item : batch) {
+                    built.index(item.getId(), item.getName(), item.getDescription(),
+                            Boolean.TRUE.equals(item.getAvailable()));
+                    lastId = item.getId();
+                }
+            } while (batch.size() == LOAD_BATCH_SIZE);
+        } finally {
+            synchronized (this) {
+                buffered.forEach(event -> apply(built, event));
+                buffered = null;
+                index = built;
+            }
+        }
+        log.info("Поисковый индекс построен: вещей {}, триграмм {}, ~{} байт",
+                built.size(), built.termCount(), built.estimatedBytes());
+    }
+
+    @Scheduled(initialDelayString = "${shareit.item-search.compact-interval:PT10M}",
+            fixedDelayString = "${shareit.item-search.compact-interval:PT10M}")
+    public void compact() {
+        ItemSearchIndex current = index;
+        if (current.stale() > current.size() / 4) {
+            build();
+        }
+    }
+
+    @TransactionalEventListener
+    public synchronized void onItemChanged(ItemChangedEvent event) {
+        apply(index, event);
+        if (buffered != null) {
+            buffered.add(event);
+        }
+    }
+
+    @Override
+    public List<Item> searchAvailable(String text, Pageable pageable) {
+        int batchSize = (int) Math.min(LOAD_BATCH_SIZE, pageable.getOffset() + pageable.getPageSize());
+        return load(text, batchSize)
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .collect(Collectors.toList());
+    }
+
+    private Stream<Item> load(String text, int batchSize) {
+        long[] ids = index.search(text);
+        return IntStream.iterate(0, from -> from < ids.length, from -> from + batchSize)
+                .mapToObj(from -> Arrays.stream(ids, from, Math.min(from + batchSize, ids.length)).boxed().toList())
+                .flatMap(batch -> itemRepository.searchAvailableItemsAmong(batch, text).stream());
+    }
+
+    private static void apply(ItemSearchIndex target, ItemChangedEvent event) {
+        if (event.isDeleted()) {
+            target.remove(event.getItemId());
+        } else {
+            target.index(event.getItemId(), event.getName(), event.getDescription(), event.isAvailable());
+        }
+    }
+}
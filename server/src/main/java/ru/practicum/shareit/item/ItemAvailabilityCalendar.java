@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.BookingIntervalView;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@UtilityClass
+public class ItemAvailabilityCalendar {
+
+    public List<ItemAvailabilityDTO> build(List<Long> itemIds, List<BookingIntervalView> intervals,
+                                           LocalDateTime from, LocalDateTime to) {
+        Map<Long, List<ItemAvailabilityDTO.IntervalDTO>> busyByItem = new LinkedHashMap<>();
+        for (Long itemId : itemIds) {
+            busyByItem.put(itemId, new ArrayList<>());
+        }
+        for (BookingIntervalView interval : intervals) {
+            List<ItemAvailabilityDTO.IntervalDTO> busy = busyByItem.get(interval.getItemId());
+            LocalDateTime start = max(interval.getBusyFrom(), from);
+            LocalDateTime end = min(interval.getBusyTo(), to);
+            ItemAvailabilityDTO.IntervalDTO last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+            if (last != null && !start.isAfter(last.getEnd())) {
+                last.setEnd(max(last.getEnd(), end));
+            } else {
+                busy.add(new ItemAvailabilityDTO.IntervalDTO(start, end));
+            }
+        }
+
+        List<ItemAvailabilityDTO> calendars = new ArrayList<>(busyByItem.size());
+        busyByItem.forEach((itemId, busy) -> calendars.add(ItemAvailabilityDTO.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .busy(busy)
+                .free(free(busy, from, to))
+                .build()));
+        return calendars;
+    }
+
+    private List<ItemAvailabilityDTO.IntervalDTO> free(List<ItemAvailabilityDTO.IntervalDTO> busy,
+                                                       LocalDateTime from, LocalDateTime to) {
+        List<ItemAvailabilityDTO.IntervalDTO> free = new ArrayList<>(busy.size() + 1);
+        LocalDateTime cursor = from;
+        for (ItemAvailabilityDTO.IntervalDTO interval : busy) {
+            if (cursor.isBefore(interval.getStart())) {
+                free.add(new ItemAvailabilityDTO.IntervalDTO(cursor, interval.getStart()));
+            }
+            cursor = interval.getEnd();
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new ItemAvailabilityDTO.IntervalDTO(cursor, to));
+        }
+        return free;
+    }
+
+    private LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDTO {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<IntervalDTO> busy;
+    private List<IntervalDTO> free;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class IntervalDTO {
+        private LocalDateTime start;
+        private LocalDateTime end;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item;
+
+import java.util.function.Consumer;
+
+public interface ItemCacheInvalidationChannel {
+
+    void publish(Long itemId);
+
+    void subscribe(Consumer<Long> listener);
+}
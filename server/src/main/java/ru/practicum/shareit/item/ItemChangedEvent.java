@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+
+@Value
+public class ItemChangedEvent {
+    Long itemId;
+    String name;
+    String description;
+    boolean available;
+    boolean deleted;
+
+    public static ItemChangedEvent saved(Item item) {
+        return new ItemChangedEvent(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()), false);
+    }
+
+    public static ItemChangedEvent deleted(Long itemId) {
+        return new ItemChangedEvent(itemId, null, null, false, true);
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.item;
+
+import lombok.Value;
+
+@Value
+public class ItemCommentedEvent {
+    Long itemId;
+}
@@ -1,10 +1,20 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -14,6 +24,7 @@ import java.util.List;
 @Slf4j
 public class ItemController {
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
@@ -42,10 +53,34 @@ public class ItemController {
         return itemService.updateItem(itemId, ownerId, updateItem);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDTO getItemAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получение занятости вещи {} с {} по {}", itemId, from, to);
+        return itemService.getItemAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDTO> getOwnerAvailability(
+            @RequestHeader(USER_ID_HEADER) Long ownerId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Получение занятости вещей владельца {} с {} по {}", ownerId, from, to);
+        return itemService.getOwnerAvailability(ownerId, from, to);
+    }
+
     @GetMapping("/{itemId}")
-    public ItemResponseDTO getItemById(@PathVariable Long itemId) {
+    public ItemResponseDTO getItemById(@PathVariable Long itemId,
+                                       @RequestHeader(value = USER_ID_HEADER, required = false) Long userId,
+                                       WebRequest request) {
         log.info("Получение вещи по ID: {}", itemId);
-        return itemService.getItemById(itemId);
+        String etag = itemService.getItemEtag(itemId, userId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
+        return itemService.getItemById(itemId, userId);
     }
 
     @GetMapping
@@ -55,14 +90,25 @@ public class ItemController {
         return itemService.getAllItemsByOwner(ownerId);
     }
 
-    @GetMapping("/search")
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
     public List<ItemResponseDTO> searchAvailableItems(
-            @RequestParam String text) {
-        log.info("Поиск доступных вещей по тексту: {}", text);
+            @RequestParam String text,
+            @RequestParam(defaultValue = "0") Integer from,
+            @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Поиск доступных вещей по тексту: {}, from={}, size={}", text, from, size);
         if (text == null || text.trim().isEmpty()) {
             return Collections.emptyList();
         }
-        return itemService.searchAvailableItems(text);
+        return itemService.searchAvailableItems(text, from, size);
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAvailableItems(@RequestParam String text) {
+        log.info("Потоковый поиск доступных вещей по тексту: {}", text);
+        StreamingResponseBody body = out -> itemService.streamAvailableItems(text, item -> writeLine(out, item));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @DeleteMapping("/{itemId}")
@@ -71,4 +117,13 @@ public class ItemController {
         log.info("Удаление вещи ID: {}", itemId);
         itemService.deleteItem(itemId);
     }
-}
\ No newline at end of file
+
+    private void writeLine(OutputStream out, ItemResponseDTO item) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(item));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -30,15 +30,14 @@ public class ItemMapper {
     }
 
     public ItemResponseDTO toItemResponseDTO(Item item) {
+        return toItemResponseDTO(item, item.getComments());
+    }
+
+    public ItemResponseDTO toItemResponseDTO(Item item, List<Comment> comments) {
         List<CommentResponseDTO> commentDTOs = null;
-        if (item.getComments() != null) {
-            commentDTOs = item.getComments().stream()
-                    .map(comment -> CommentResponseDTO.builder()
-                            .id(comment.getId())
-                            .text(comment.getText())
-                            .authorName(comment.getAuthor().getName())
-                            .created(comment.getCreated())
-                            .build())
+        if (comments != null) {
+            commentDTOs = comments.stream()
+                    .map(CommentMapper::toDTO)
                     .collect(Collectors.toList());
         }
 
@@ -1,17 +1,63 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String SEARCH_AVAILABLE = "SELECT i FROM Item i " +
+            "WHERE i.available = TRUE " +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "ORDER BY i.id ASC";
+
+    String SEARCH_AVAILABLE_RANKED = """
+            SELECT i.* FROM items i
+            WHERE i.available = TRUE
+            AND (LOWER(i.name) LIKE CONCAT('%', :text, '%')
+            OR LOWER(i.description) LIKE CONCAT('%', :text, '%'))
+            ORDER BY GREATEST(similarity(LOWER(i.name), :text), similarity(LOWER(i.description), :text)) DESC, i.id
+            """;
+
+    String SEARCH_AVAILABLE_AMONG = "SELECT i FROM Item i " +
+            "WHERE i.id IN :ids AND i.available = TRUE " +
+            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
+            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%'))) " +
+            "ORDER BY i.id ASC";
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId ORDER BY i.id")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :itemId")
+    Optional<Item> findByIdForUpdate(Long itemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("SELECT i.id FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Long> lockIdsByIdIn(Collection<Long> ids);
+
     @Query("SELECT i FROM Item i WHERE i.owner.id = :ownerId ORDER BY i.id ASC")
     List<Item> findByOwnerIdOrderByIdAsc(Long ownerId);
 
-    @Query("SELECT i FROM Item i " +
-            "WHERE i.available = TRUE " +
-            "AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :text, '%')) " +
-            "OR LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
-    List<Item> searchAvailableItems(String text);
+    @Query(SEARCH_AVAILABLE)
+    List<Item> searchAvailableItems(String text, Pageable pageable);
+
+    @Query(value = SEARCH_AVAILABLE_RANKED, nativeQuery = true)
+    List<Item> searchAvailableItemsRanked(String text, Pageable pageable);
+
+    @Query(SEARCH_AVAILABLE_AMONG)
+    List<Item> searchAvailableItemsAmong(Collection<Long> ids, String text);
+
+    List<ItemSearchView> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
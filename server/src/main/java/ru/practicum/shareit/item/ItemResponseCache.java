@@ -0,0 +1,193 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.ConditionalGetFilter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+@Component
+public class ItemResponseCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final ItemCacheInvalidationChannel channel;
+    private final ObjectMapper objectMapper;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong invalidations = new AtomicLong();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+    private final Counter invalidatedEvictions;
+
+    @Autowired
+    public ItemResponseCache(@Value("${shareit.item-cache.max-size:10000}") int maxSize,
+                             @Value("${shareit.item-cache.ttl:PT5M}") Duration ttl,
+                             ItemCacheInvalidationChannel channel,
+                             ObjectMapper objectMapper,
+                             MeterRegistry registry) {
+        this(maxSize, ttl, channel, objectMapper, registry, System::nanoTime);
+    }
+
+    ItemResponseCache(int maxSize, Duration ttl, ItemCacheInvalidationChannel channel, ObjectMapper objectMapper,
+                      MeterRegistry registry, LongSupplier ticker) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.channel = channel;
+        this.objectMapper = objectMapper;
+        this.hits = Counter.builder("shareit.item-cache.hits")
+                .description("Ответы по вещам, взятые из кэша")
+                .register(registry);
+        this.misses = Counter.builder("shareit.item-cache.misses")
+                .description("Ответы по вещам, собранные из базы данных")
+                .register(registry);
+        this.sizeEvictions = eviction(registry, "size");
+        this.expiredEvictions = eviction(registry, "expired");
+        this.invalidatedEvictions = eviction(registry, "invalidated");
+        Gauge.builder("shareit.item-cache.size", this, ItemResponseCache::size)
+                .description("Количество вещей в кэше")
+                .register(registry);
+        channel.subscribe(this::evict);
+    }
+
+    public ItemResponseDTO get(Long itemId, Supplier<ItemResponseDTO> loader) {
+        synchronized (entries) {
+            Entry entry = entries.get(itemId);
+            if (entry != null) {
+                if (ticker.getAsLong() - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return copy(entry.value);
+                }
+                entries.remove(itemId);
+                expiredEvictions.increment();
+            }
+        }
+        misses.increment();
+        long generation = invalidations.get();
+        ItemResponseDTO value = loader.get();
+        ItemResponseDTO cached = copy(value);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    put(itemId, cached, generation);
+                }
+            });
+        } else {
+            put(itemId, cached, generation);
+        }
+        return value;
+    }
+
+    private void put(Long itemId, ItemResponseDTO value, long generation) {
+        String etag = etag(value);
+        synchronized (entries) {
+            if (invalidations.get() == generation) {
+                entries.put(itemId, new Entry(value, ticker.getAsLong(), etag));
+                trim();
+            }
+        }
+    }
+
+    @Nullable
+    public String etag(Long itemId, @Nullable Long userId) {
+        synchronized (entries) {
+            Entry entry = entries.get(itemId);
+            if (entry == null || ticker.getAsLong() - entry.loadedAt >= ttlNanos
+                    || entry.value.getOwnerId().equals(userId)) {
+                return null;
+            }
+            return entry.etag;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    @EventListener
+    public void onItemChanged(ItemChangedEvent event) {
+        evict(event.getItemId());
+    }
+
+    @EventListener
+    public void onItemCommented(ItemCommentedEvent event) {
+        evict(event.getItemId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterItemChanged(ItemChangedEvent event) {
+        channel.publish(event.getItemId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    public void afterItemCommented(ItemCommentedEvent event) {
+        channel.publish(event.getItemId());
+    }
+
+    void evict(Long itemId) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            if (entries.remove(itemId) != null) {
+                invalidatedEvictions.increment();
+            }
+        }
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            sizeEvictions.increment();
+        }
+    }
+
+    private static Counter eviction(MeterRegistry registry, String cause) {
+        return Counter.builder("shareit.item-cache.evictions")
+                .description("Вытеснения из кэша вещей")
+                .tag("cause", cause)
+                .register(registry);
+    }
+
+    private static ItemResponseDTO copy(ItemResponseDTO value) {
+        return value.toBuilder()
+                .comments(value.getComments() == null ? null : new ArrayList<>(value.getComments()))
+                .build();
+    }
+
+    @Nullable
+    private String etag(ItemResponseDTO value) {
+        try {
+            return ConditionalGetFilter.etag(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private record Entry(ItemResponseDTO value, long loadedAt, @Nullable String etag) {
+    }
+}
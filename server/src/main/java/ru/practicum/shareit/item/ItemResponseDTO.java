@@ -9,7 +9,7 @@ import ru.practicum.shareit.booking.BookingDateDTO;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ItemResponseDTO {
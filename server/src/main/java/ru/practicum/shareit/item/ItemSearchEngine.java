@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<Item> searchAvailable(String text, Pageable pageable);
+}
@@ -0,0 +1,304 @@
+package ru.practicum.shareit.item;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Текст вещей не хранится: поиск возвращает кандидатов, которые нужно проверить по базе. Удалённые и
+ * изменённые вещи остаются в списках триграмм до перестроения индекса, см. {@link #stale()}.
+ */
+public class ItemSearchIndex {
+    private static final int GRAM = 3;
+    private static final char PAD = '\u0000';
+    private static final long[] EMPTY = new long[0];
+
+    private final LongMap<Postings> postings = new LongMap<>();
+    private final LongMap<Boolean> documents = new LongMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int stale;
+
+    public void index(long itemId, String name, String description, boolean available) {
+        lock.writeLock().lock();
+        try {
+            if (documents.remove(itemId) != null) {
+                stale++;
+            }
+            if (!available) {
+                return;
+            }
+            documents.put(itemId, Boolean.TRUE);
+            for (long gram : grams(lower(name), lower(description))) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    list = new Postings();
+                    postings.put(gram, list);
+                }
+                list.add(itemId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long itemId) {
+        lock.writeLock().lock();
+        try {
+            if (documents.remove(itemId) != null) {
+                stale++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long[] search(String text) {
+        String query = lower(text);
+        if (query.isEmpty()) {
+            return EMPTY;
+        }
+        lock.readLock().lock();
+        try {
+            return query.length() < GRAM ? prefix(query) : lookup(query);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int stale() {
+        lock.readLock().lock();
+        try {
+            return stale;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = postings.estimatedBytes() + documents.estimatedBytes();
+            for (Object value : postings.values) {
+                if (value != null) {
+                    bytes += 32 + 16L + 8L * ((Postings) value).ids.length;
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] lookup(String query) {
+        long[] grams = grams(query, 0);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return EMPTY;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        long[] result = new long[lists[0].size];
+        int found = 0;
+        for (int i = 0; i < lists[0].size; i++) {
+            long itemId = lists[0].ids[i];
+            if (containsInAll(lists, itemId) && documents.get(itemId) != null) {
+                result[found++] = itemId;
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    private long[] prefix(String query) {
+        int shift = 16 * (GRAM - query.length());
+        long wanted = query.length() == 1 ? query.charAt(0) : ((long) query.charAt(0) << 16) | query.charAt(1);
+        long[] result = EMPTY;
+        int found = 0;
+        for (int slot = 0; slot < postings.keys.length; slot++) {
+            long gram = postings.keys[slot];
+            if (gram == LongMap.FREE || gram >>> shift != wanted) {
+                continue;
+            }
+            Postings list = (Postings) postings.values[slot];
+            if (found + list.size > result.length) {
+                result = Arrays.copyOf(result, Math.max(found + list.size, result.length * 2));
+            }
+            System.arraycopy(list.ids, 0, result, found, list.size);
+            found += list.size;
+        }
+        return Arrays.stream(result, 0, found)
+                .sorted()
+                .distinct()
+                .filter(itemId -> documents.get(itemId) != null)
+                .toArray();
+    }
+
+    private static boolean containsInAll(Postings[] lists, long itemId) {
+        for (int i = 1; i < lists.length; i++) {
+            if (!lists[i].contains(itemId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long[] grams(String name, String description) {
+        long[] first = grams(name, 2);
+        long[] second = grams(description, 2);
+        long[] all = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, all, first.length, second.length);
+        return Arrays.stream(all).distinct().toArray();
+    }
+
+    private static long[] grams(String text, int padding) {
+        int length = text.length() + padding;
+        if (text.isEmpty() || length < GRAM) {
+            return EMPTY;
+        }
+        long[] grams = new long[length - GRAM + 1];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = ((long) charAt(text, i) << 32) | ((long) charAt(text, i + 1) << 16) | charAt(text, i + 2);
+        }
+        return Arrays.stream(grams).distinct().toArray();
+    }
+
+    private static char charAt(String text, int index) {
+        return index < text.length() ? text.charAt(index) : PAD;
+    }
+
+    private static String lower(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Postings {
+        private long[] ids = new long[2];
+        private int size;
+
+        void add(long itemId) {
+            int position = Arrays.binarySearch(ids, 0, size, itemId);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = itemId;
+            size++;
+        }
+
+        boolean contains(long itemId) {
+            return Arrays.binarySearch(ids, 0, size, itemId) >= 0;
+        }
+    }
+
+    private static final class LongMap<V> {
+        private static final long FREE = 0;
+
+        private long[] keys = new long[16];
+        private Object[] values = new Object[16];
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        V get(long key) {
+            for (int slot = slot(key, keys.length); keys[slot] != FREE; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == key) {
+                    return (V) values[slot];
+                }
+            }
+            return null;
+        }
+
+        void put(long key, V value) {
+            if (2 * (size + 1) > keys.length) {
+                resize(keys.length * 2);
+            }
+            int slot = slot(key, keys.length);
+            while (keys[slot] != FREE && keys[slot] != key) {
+                slot = (slot + 1) & (keys.length - 1);
+            }
+            if (keys[slot] == FREE) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        @SuppressWarnings("unchecked")
+        V remove(long key) {
+            int mask = keys.length - 1;
+            int slot = slot(key, keys.length);
+            while (keys[slot] != key) {
+                if (keys[slot] == FREE) {
+                    return null;
+                }
+                slot = (slot + 1) & mask;
+            }
+            V removed = (V) values[slot];
+            for (int next = (slot + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+                int home = slot(keys[next], keys.length);
+                if (((next - home) & mask) >= ((next - slot) & mask)) {
+                    keys[slot] = keys[next];
+                    values[slot] = values[next];
+                    slot = next;
+                }
+            }
+            keys[slot] = FREE;
+            values[slot] = null;
+            size--;
+            return removed;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long estimatedBytes() {
+            return 16L + 8L * keys.length + 16L + 4L * values.length;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new long[capacity];
+            values = new Object[capacity];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != FREE) {
+                    int slot = slot(oldKeys[i], capacity);
+                    while (keys[slot] != FREE) {
+                        slot = (slot + 1) & (capacity - 1);
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+
+        private static int slot(long key, int capacity) {
+            long mixed = key * 0x9E3779B97F4A7C15L;
+            return (int) (mixed ^ (mixed >>> 32)) & (capacity - 1);
+        }
+    }
+}
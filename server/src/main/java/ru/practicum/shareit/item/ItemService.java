@@ -1,17 +1,27 @@
 package ru.practicum.shareit.item;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface ItemService {
     ItemResponseDTO createItem(Long ownerId, ItemRequestDTO itemDTO);
 
     ItemResponseDTO updateItem(Long itemId, Long ownerId, ItemUpdateDTO updateItem);
 
-    ItemResponseDTO getItemById(Long itemId);
+    ItemResponseDTO getItemById(Long itemId, Long userId);
+
+    String getItemEtag(Long itemId, Long userId);
 
     List<ItemResponseDTO> getAllItemsByOwner(Long ownerId);
 
-    List<ItemResponseDTO> searchAvailableItems(String text);
+    List<ItemResponseDTO> searchAvailableItems(String text, Integer from, Integer size);
+
+    void streamAvailableItems(String text, Consumer<ItemResponseDTO> consumer);
+
+    ItemAvailabilityDTO getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemAvailabilityDTO> getOwnerAvailability(Long ownerId, LocalDateTime from, LocalDateTime to);
 
     void deleteItem(Long itemId);
 
@@ -1,12 +1,19 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.Booking;
-import ru.practicum.shareit.booking.BookingDateDTO;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatsService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.ItemRequest;
@@ -18,6 +25,7 @@ import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,11 +33,19 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 @Slf4j
 public class ItemServiceImpl implements ItemService {
+    private static final int STREAM_BATCH_SIZE = 100;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final BookingStatsService bookingStatsService;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemResponseCache itemResponseCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
 
 
     @Override
@@ -44,6 +60,8 @@ public class ItemServiceImpl implements ItemService {
         }
         Item item = ItemMapper.toItem(itemDTO, owner, request);
         Item savedItem = itemRepository.save(item);
+        itemBookingSummaryService.onItemCreated(savedItem.getId());
+        eventPublisher.publishEvent(ItemChangedEvent.saved(savedItem));
         return ItemMapper.toItemResponseDTO(savedItem);
     }
 
@@ -61,15 +79,31 @@ public class ItemServiceImpl implements ItemService {
         Item newItem = ItemMapper.toItemFromUpdate(updateItem, owner, itemId);
         newItem = updateIfNotNull(newItem, existingItem);
         Item updatedItem = itemRepository.save(newItem);
+        eventPublisher.publishEvent(ItemChangedEvent.saved(updatedItem));
         return ItemMapper.toItemResponseDTO(updatedItem);
     }
 
 
     @Override
-    public ItemResponseDTO getItemById(Long itemId) {
-        return itemRepository.findById(itemId)
-                .map(ItemMapper::toItemResponseDTO)
-                .orElseThrow(() -> new NotFoundException("Вещь не найдена: " + itemId));
+    public ItemResponseDTO getItemById(Long itemId, Long userId) {
+        ItemResponseDTO dto = itemResponseCache.get(itemId, () -> {
+            Item item = itemRepository.findById(itemId)
+                    .orElseThrow(() -> new NotFoundException("Вещь не найдена: " + itemId));
+            return ItemMapper.toItemResponseDTO(item, commentRepository.findWithAuthorByItemIdIn(List.of(itemId)));
+        });
+        if (dto.getOwnerId().equals(userId)) {
+            ItemBookingSummary summary = itemBookingSummaryService.findForItems(List.of(itemId), LocalDateTime.now())
+                    .get(itemId);
+            dto.setLastBooking(summary.getLastBooking());
+            dto.setNextBooking(summary.getNextBooking());
+        }
+        return dto;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String getItemEtag(Long itemId, Long userId) {
+        return itemResponseCache.etag(itemId, userId);
     }
 
     @Override
@@ -80,61 +114,74 @@ public class ItemServiceImpl implements ItemService {
                 .collect(Collectors.toList());
         LocalDateTime now = LocalDateTime.now();
 
-        Map<Long, Booking> lastBookingsMap = bookingRepository.findLastBookingsForItems(itemIds, now)
-                .stream()
-                .collect(Collectors.toMap(
-                        booking -> booking.getItem().getId(),
-                        booking -> booking,
-                        (existing, replacement) -> existing
-                ));
-
-        Map<Long, Booking> nextBookingsMap = bookingRepository.findNextBookingsForItems(itemIds, now)
-                .stream()
-                .collect(Collectors.toMap(
-                        booking -> booking.getItem().getId(),
-                        booking -> booking,
-                        (existing, replacement) -> existing
-                ));
+        Map<Long, ItemBookingSummary> summaries = itemBookingSummaryService.findForItems(itemIds, now);
+
+        Map<Long, List<Comment>> commentsByItem = findCommentsByItem(itemIds);
 
         return items.stream()
                 .map(item -> {
-                    ItemResponseDTO dto = ItemMapper.toItemResponseDTO(item);
                     Long itemId = item.getId();
-
-                    Booking lastBooking = lastBookingsMap.get(itemId);
-                    if (lastBooking != null) {
-                        dto.setLastBooking(
-                                BookingDateDTO.builder()
-                                        .id(lastBooking.getId())
-                                        .bookerId(lastBooking.getBooker().getId())
-                                        .build()
-                        );
-                    }
-
-                    Booking nextBooking = nextBookingsMap.get(itemId);
-                    if (nextBooking != null) {
-                        dto.setNextBooking(
-                                BookingDateDTO.builder()
-                                        .id(nextBooking.getId())
-                                        .bookerId(nextBooking.getBooker().getId())
-                                        .build()
-                        );
-                    }
-
+                    ItemResponseDTO dto = ItemMapper.toItemResponseDTO(item,
+                            commentsByItem.getOrDefault(itemId, Collections.emptyList()));
+                    ItemBookingSummary summary = summaries.get(itemId);
+                    dto.setLastBooking(summary.getLastBooking());
+                    dto.setNextBooking(summary.getNextBooking());
                     return dto;
                 })
                 .collect(Collectors.toList());
     }
 
     @Override
-    public List<ItemResponseDTO> searchAvailableItems(String text) {
+    public List<ItemResponseDTO> searchAvailableItems(String text, Integer from, Integer size) {
         if (text == null || text.trim().isEmpty()) {
             return Collections.emptyList();
         }
+        if (from < 0 || size <= 0) {
+            throw new ValidationException("Некорректные параметры страницы: from=" + from + ", size=" + size);
+        }
 
-        return itemRepository.searchAvailableItems(text.toLowerCase()).stream()
-                .map(ItemMapper::toItemResponseDTO)
-                .collect(Collectors.toList());
+        Pageable pageable = PageRequest.of(from / size, size);
+        return toItemResponseDTOs(itemSearchEngine.searchAvailable(text.toLowerCase(), pageable));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public void streamAvailableItems(String text, Consumer<ItemResponseDTO> consumer) {
+        if (text == null || text.trim().isEmpty()) {
+            return;
+        }
+
+        String query = text.toLowerCase();
+        List<Item> page;
+        int number = 0;
+        do {
+            page = itemSearchEngine.searchAvailable(query, PageRequest.of(number++, STREAM_BATCH_SIZE));
+            List<ItemResponseDTO> items = toItemResponseDTOs(page);
+            entityManager.clear();
+            items.forEach(consumer);
+        } while (page.size() == STREAM_BATCH_SIZE);
+    }
+
+    @Override
+    public ItemAvailabilityDTO getItemAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to);
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь не найдена: " + itemId);
+        }
+        List<Long> itemIds = List.of(itemId);
+        return ItemAvailabilityCalendar.build(itemIds,
+                bookingRepository.findIntervals(itemIds, from, to, BookingStatus.BLOCKING), from, to).get(0);
+    }
+
+    @Override
+    public List<ItemAvailabilityDTO> getOwnerAvailability(Long ownerId, LocalDateTime from, LocalDateTime to) {
+        validateRange(from, to);
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(ownerId);
+        if (itemIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return ItemAvailabilityCalendar.build(itemIds,
+                bookingRepository.findIntervals(itemIds, from, to, BookingStatus.BLOCKING), from, to);
     }
 
     @Override
@@ -143,7 +190,9 @@ public class ItemServiceImpl implements ItemService {
         if (!itemRepository.existsById(itemId)) {
             throw new NotFoundException("Вещь не найдена: " + itemId);
         }
+        bookingStatsService.onItemDeleted(itemId);
         itemRepository.deleteById(itemId);
+        eventPublisher.publishEvent(ItemChangedEvent.deleted(itemId));
     }
 
     @Override
@@ -191,12 +240,38 @@ public class ItemServiceImpl implements ItemService {
                 .build();
 
         commentRepository.save(comment);
+        eventPublisher.publishEvent(new ItemCommentedEvent(itemId));
         log.info("Комментарий сохранился успешно");
 
         return CommentMapper.toDTO(comment);
     }
 
 
+    private List<ItemResponseDTO> toItemResponseDTOs(List<Item> items) {
+        Map<Long, List<Comment>> commentsByItem = findCommentsByItem(items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList()));
+
+        return items.stream()
+                .map(item -> ItemMapper.toItemResponseDTO(item,
+                        commentsByItem.getOrDefault(item.getId(), Collections.emptyList())))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, List<Comment>> findCommentsByItem(List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return commentRepository.findWithAuthorByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+    }
+
+    private void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Начало периода должно быть раньше конца: from=" + from + ", to=" + to);
+        }
+    }
+
     private Item updateIfNotNull(Item newItem, Item existingItem) {
         if (newItem.getName() != null) {
             existingItem.setName(newItem.getName());
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item-cache.invalidation", havingValue = "jdbc")
+@Slf4j
+public class JdbcItemCacheInvalidationChannel implements ItemCacheInvalidationChannel {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration lag;
+    private final Duration retention;
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+    private LocalDateTime lastPoll;
+    private Set<Long> delivered = Set.of();
+
+    public JdbcItemCacheInvalidationChannel(JdbcTemplate jdbcTemplate,
+                                            PlatformTransactionManager transactionManager,
+                                            @Value("${shareit.item-cache.poll-lag:PT5S}") Duration lag,
+                                            @Value("${shareit.item-cache.invalidation-retention:PT10M}") Duration retention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.lag = lag;
+        this.retention = retention;
+        this.lastPoll = databaseTime();
+    }
+
+    @Override
+    public void publish(Long itemId) {
+        listeners.forEach(listener -> listener.accept(itemId));
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(
+                "INSERT INTO item_cache_invalidations (item_id, created) VALUES (?, LOCALTIMESTAMP)", itemId));
+    }
+
+    @Override
+    public void subscribe(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-cache.poll-interval:PT1S}")
+    public synchronized void poll() {
+        LocalDateTime now = databaseTime();
+        Set<Long> seen = new HashSet<>();
+        jdbcTemplate.query("SELECT id, item_id FROM item_cache_invalidations WHERE created >= ?",
+                (RowCallbackHandler) row -> {
+                    long id = row.getLong("id");
+                    seen.add(id);
+                    if (!delivered.contains(id)) {
+                        long itemId = row.getLong("item_id");
+                        listeners.forEach(listener -> listener.accept(itemId));
+                    }
+                }, lastPoll.minus(lag));
+        delivered = seen;
+        jdbcTemplate.update("DELETE FROM item_cache_invalidations WHERE created < ?", now.minus(retention));
+        lastPoll = now;
+    }
+
+    private LocalDateTime databaseTime() {
+        return jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP", LocalDateTime.class);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "like", matchIfMissing = true)
+@RequiredArgsConstructor
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> searchAvailable(String text, Pageable pageable) {
+        return itemRepository.searchAvailableItems(text, pageable);
+    }
+}
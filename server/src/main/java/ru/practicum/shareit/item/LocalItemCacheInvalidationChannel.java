@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item-cache.invalidation", havingValue = "local", matchIfMissing = true)
+public class LocalItemCacheInvalidationChannel implements ItemCacheInvalidationChannel {
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Long itemId) {
+        listeners.forEach(listener -> listener.accept(itemId));
+    }
+
+    @Override
+    public void subscribe(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+}
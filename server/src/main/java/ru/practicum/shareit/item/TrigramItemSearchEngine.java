@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "shareit.item-search.engine", havingValue = "trigram")
+@RequiredArgsConstructor
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> searchAvailable(String text, Pageable pageable) {
+        return itemRepository.searchAvailableItemsRanked(text, pageable);
+    }
+}
@@ -1,6 +1,5 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
@@ -9,5 +8,5 @@ import java.util.List;
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
     List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(Long requestorId);
 
-    Page<ItemRequest> findAllByRequestorIdNot(Long requestorId, Pageable pageable);
+    List<ItemRequest> findAllByRequestorIdNot(Long requestorId, Pageable pageable);
 }
\ No newline at end of file
@@ -1,12 +1,20 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatsService;
+import ru.practicum.shareit.booking.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemRepository;
 
 import java.util.List;
+import java.util.stream.Stream;
 import java.util.stream.Collectors;
 
 @Service
@@ -14,6 +22,12 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingRepository bookingRepository;
+    private final ArchivedBookingRepository archivedBookingRepository;
+    private final BookingStatsService bookingStatsService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -63,7 +77,19 @@ public class UserServiceImpl implements UserService {
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь не найден: " + userId);
         }
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId);
+        List<Long> bookedItemIds = Stream.concat(
+                        bookingRepository.findItemIdsByBookerId(userId).stream(),
+                        archivedBookingRepository.findItemIdsByBookerId(userId).stream())
+                .filter(itemId -> !itemIds.contains(itemId))
+                .distinct()
+                .toList();
+        bookingStatsService.onUserDeleted(userId);
+        bookingRepository.deleteByBookerId(userId);
+        archivedBookingRepository.deleteByBookerId(userId);
+        itemBookingSummaryService.refresh(bookedItemIds);
         userRepository.deleteById(userId);
+        itemIds.forEach(itemId -> eventPublisher.publishEvent(ItemChangedEvent.deleted(itemId)));
     }
 
     private void validateUserEmail(String email, Long userId) {
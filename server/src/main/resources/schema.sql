@@ -17,18 +17,130 @@ CREATE TABLE IF NOT EXISTS items (
   CONSTRAINT fk_item_owner FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request ON items (request_id);
+
 CREATE TABLE IF NOT EXISTS bookings (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
   item_id BIGINT NOT NULL,
   booker_id BIGINT NOT NULL,
+  owner_id BIGINT NOT NULL,
   status VARCHAR(20) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
   CONSTRAINT pk_booking PRIMARY KEY (id),
   CONSTRAINT fk_booking_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
-  CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE
+  CONSTRAINT fk_booking_booker FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE,
+  CONSTRAINT fk_booking_owner FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS owner_id BIGINT;
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+UPDATE bookings SET owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id) WHERE owner_id IS NULL;
+ALTER TABLE bookings ALTER COLUMN owner_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS ix_bookings_item_end ON bookings (item_id, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_booker_status_end ON bookings (item_id, booker_id, status, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_start ON bookings (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_status_start ON bookings (owner_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_status_start ON bookings (status, start_date, id);
+CREATE INDEX IF NOT EXISTS ix_bookings_end ON bookings (end_date, id);
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+  id BIGINT NOT NULL,
+  start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  item_id BIGINT NOT NULL,
+  booker_id BIGINT NOT NULL,
+  owner_id BIGINT NOT NULL,
+  status VARCHAR(20) NOT NULL,
+  version BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_booking_archive PRIMARY KEY (id),
+  CONSTRAINT fk_booking_archive_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE,
+  CONSTRAINT fk_booking_archive_booker FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE,
+  CONSTRAINT fk_booking_archive_owner FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_booker_status_end ON bookings_archive (item_id, booker_id, status, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_status_end ON bookings_archive (item_id, status, end_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON bookings_archive (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_status_start ON bookings_archive (booker_id, status, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_owner_start ON bookings_archive (owner_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_owner_status_start ON bookings_archive (owner_id, status, start_date DESC, id DESC);
+
+CREATE TABLE IF NOT EXISTS item_booking_summaries (
+  item_id BIGINT NOT NULL,
+  last_booking_id BIGINT,
+  last_booker_id BIGINT,
+  next_booking_id BIGINT,
+  next_booker_id BIGINT,
+  approved_count BIGINT NOT NULL DEFAULT 0,
+  valid_until TIMESTAMP WITHOUT TIME ZONE,
+  CONSTRAINT pk_item_booking_summary PRIMARY KEY (item_id),
+  CONSTRAINT fk_item_booking_summary_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_item_booking_summaries_valid_until ON item_booking_summaries (valid_until);
+
+INSERT INTO item_booking_summaries (item_id, approved_count, valid_until)
+SELECT i.id, 0, TIMESTAMP '1970-01-01 00:00:00' FROM items i
+WHERE NOT EXISTS (SELECT 1 FROM item_booking_summaries s WHERE s.item_id = i.id);
+
+CREATE TABLE IF NOT EXISTS booking_counter_deltas (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  user_id BIGINT NOT NULL,
+  role VARCHAR(20) NOT NULL,
+  effective_at TIMESTAMP WITHOUT TIME ZONE,
+  rolled_up BOOLEAN NOT NULL DEFAULT FALSE,
+  total BIGINT NOT NULL DEFAULT 0,
+  waiting BIGINT NOT NULL DEFAULT 0,
+  rejected BIGINT NOT NULL DEFAULT 0,
+  started BIGINT NOT NULL DEFAULT 0,
+  ended BIGINT NOT NULL DEFAULT 0,
+  CONSTRAINT pk_booking_counter_delta PRIMARY KEY (id),
+  CONSTRAINT fk_booking_counter_delta_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS ix_booking_counter_deltas_user_role ON booking_counter_deltas (user_id, role, effective_at);
+CREATE INDEX IF NOT EXISTS ix_booking_counter_deltas_pending ON booking_counter_deltas (rolled_up, effective_at, id);
+
+INSERT INTO booking_counter_deltas (user_id, role, effective_at, total, waiting, rejected, started, ended)
+SELECT s.user_id, s.role, s.effective_at, s.total, s.waiting, s.rejected, s.started, s.ended
+FROM (
+  SELECT b.booker_id AS user_id, 'BOOKER' AS role, CAST(NULL AS TIMESTAMP) AS effective_at, 1 AS total,
+         CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END AS waiting,
+         CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END AS rejected, 0 AS started, 0 AS ended
+  FROM bookings b
+  UNION ALL
+  SELECT b.booker_id, 'BOOKER', b.start_date, 0, 0, 0, 1, 0 FROM bookings b
+  UNION ALL
+  SELECT b.booker_id, 'BOOKER', b.end_date, 0, 0, 0, 0, 1 FROM bookings b
+  UNION ALL
+  SELECT b.owner_id, 'OWNER', CAST(NULL AS TIMESTAMP), 1,
+         CASE WHEN b.status = 'WAITING' THEN 1 ELSE 0 END,
+         CASE WHEN b.status = 'REJECTED' THEN 1 ELSE 0 END, 0, 0
+  FROM bookings b
+  UNION ALL
+  SELECT b.owner_id, 'OWNER', b.start_date, 0, 0, 0, 1, 0 FROM bookings b
+  UNION ALL
+  SELECT b.owner_id, 'OWNER', b.end_date, 0, 0, 0, 0, 1 FROM bookings b
+) s
+WHERE NOT EXISTS (SELECT 1 FROM booking_counter_deltas);
+
+CREATE TABLE IF NOT EXISTS item_cache_invalidations (
+  id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+  item_id BIGINT NOT NULL,
+  created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+  CONSTRAINT pk_item_cache_invalidation PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS ix_item_cache_invalidations_created ON item_cache_invalidations (created);
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
     text VARCHAR(512) NOT NULL,
@@ -39,6 +151,8 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT fk_author FOREIGN KEY (author_id) REFERENCES users(id)
 );
 
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created);
+
 CREATE TABLE IF NOT EXISTS requests (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
     description VARCHAR(1000) NOT NULL,
@@ -47,5 +161,8 @@ CREATE TABLE IF NOT EXISTS requests (
     CONSTRAINT fk_request_user FOREIGN KEY (requestor_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created ON requests (requestor_id, created DESC);
+CREATE INDEX IF NOT EXISTS ix_requests_created ON requests (created DESC);
+
 
 
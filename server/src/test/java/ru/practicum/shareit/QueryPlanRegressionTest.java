@@ -0,0 +1,203 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.ArchivedBookingRepository;
+import ru.practicum.shareit.booking.BookingCursor;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.QueryPlanRegressionTest$CapturingStatementInspector")
+@ActiveProfiles("test")
+@Transactional
+class QueryPlanRegressionTest {
+    private static final long ID_BASE = 1_000_000;
+    private static final int USERS = 200;
+    private static final int ITEMS = 2_000;
+    private static final int BOOKINGS = 20_000;
+    private static final List<String> INDEXED_TABLES = List.of("BOOKINGS", "BOOKINGS_ARCHIVE", "ITEMS", "COMMENTS",
+            "REQUESTS");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    private final List<String> regressions = new ArrayList<>();
+
+    @BeforeEach
+    void loadDataset() {
+        jdbcTemplate.update("INSERT INTO users (id, name, email) " +
+                "SELECT X + ?, 'Пользователь ' || X, 'plan' || X || '@email.com' FROM SYSTEM_RANGE(1, ?)", ID_BASE, USERS);
+        jdbcTemplate.update("INSERT INTO requests (id, description, requestor_id, created) " +
+                "SELECT X + ?, 'Запрос', MOD(X, ?) + 1 + ?, DATEADD('DAY', -X, CURRENT_TIMESTAMP) " +
+                "FROM SYSTEM_RANGE(1, ?)", ID_BASE, USERS, ID_BASE, ITEMS / 4);
+        jdbcTemplate.update("INSERT INTO items (id, name, description, available, owner_id, request_id) " +
+                "SELECT X + ?, 'Вещь ' || X, 'Описание', MOD(X, 3) > 0, MOD(X, ?) + 1 + ?, " +
+                "CASE WHEN MOD(X, 4) = 0 THEN X / 4 + ? END FROM SYSTEM_RANGE(1, ?)",
+                ID_BASE, USERS, ID_BASE, ID_BASE, ITEMS);
+        jdbcTemplate.update("INSERT INTO bookings (id, start_date, end_date, item_id, booker_id, owner_id, status, version) " +
+                "SELECT X + ?, DATEADD('HOUR', X - ?, CURRENT_TIMESTAMP), DATEADD('HOUR', X - ? + 2, CURRENT_TIMESTAMP), " +
+                "MOD(X, ?) + 1 + ?, MOD(X * 7, ?) + 1 + ?, MOD(MOD(X, ?) + 1, ?) + 1 + ?, " +
+                "CASE MOD(X, 4) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'REJECTED' ELSE 'APPROVED' END, 0 " +
+                "FROM SYSTEM_RANGE(1, ?)",
+                ID_BASE, BOOKINGS / 2, BOOKINGS / 2, ITEMS, ID_BASE, USERS, ID_BASE, ITEMS, USERS, ID_BASE, BOOKINGS);
+        jdbcTemplate.update("INSERT INTO bookings_archive " +
+                "(id, start_date, end_date, item_id, booker_id, owner_id, status, version) " +
+                "SELECT id, start_date, end_date, item_id, booker_id, owner_id, status, version FROM bookings " +
+                "WHERE id <= ?", ID_BASE + BOOKINGS / 4);
+        jdbcTemplate.update("INSERT INTO comments (text, item_id, author_id, created) " +
+                "SELECT 'Комментарий', MOD(X, ?) + 1 + ?, MOD(X, ?) + 1 + ?, CURRENT_TIMESTAMP " +
+                "FROM SYSTEM_RANGE(1, ?)", ITEMS, ID_BASE, USERS, ID_BASE, ITEMS * 2);
+    }
+
+    @Test
+    void repositoryQueries_shouldNotScanIndexedTables() {
+        long user = ID_BASE + 1;
+        long item = ID_BASE + 1;
+        List<Long> items = List.of(ID_BASE + 1, ID_BASE + 2, ID_BASE + 3);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = BookingCursor.FIRST.getStart();
+        Long id = BookingCursor.FIRST.getId();
+        Limit limit = Limit.of(11);
+
+        check("findByBookerId", () -> bookingRepository.findByBookerId(user, start, id, limit));
+        check("findCurrentByBookerId", () -> bookingRepository.findCurrentByBookerId(user, now, start, id, limit));
+        check("findPastByBookerId", () -> bookingRepository.findPastByBookerId(user, now, start, id, limit));
+        check("findFutureByBookerId", () -> bookingRepository.findFutureByBookerId(user, now, start, id, limit));
+        check("findByBookerIdAndStatus", () -> bookingRepository.findByBookerIdAndStatus(
+                user, BookingStatus.WAITING, start, id, limit));
+        check("findByOwnerId", () -> bookingRepository.findByOwnerId(user, start, id, limit));
+        check("findCurrentByOwnerId", () -> bookingRepository.findCurrentByOwnerId(user, now, start, id, limit));
+        check("findPastByOwnerId", () -> bookingRepository.findPastByOwnerId(user, now, start, id, limit));
+        check("findFutureByOwnerId", () -> bookingRepository.findFutureByOwnerId(user, now, start, id, limit));
+        check("findByOwnerIdAndStatus", () -> bookingRepository.findByOwnerIdAndStatus(
+                user, BookingStatus.REJECTED, start, id, limit));
+        check("findBookingSummariesForItems", () -> bookingRepository.findBookingSummariesForItems(items, now));
+        check("findIntervals", () -> bookingRepository.findIntervals(
+                items, now, now.plusDays(7), BookingStatus.BLOCKING));
+        check("existsOverlapping", () -> bookingRepository.existsOverlapping(
+                item, now, now.plusDays(1), BookingStatus.BLOCKING));
+        check("hasUserBookedItem", () -> bookingRepository.hasUserBookedItem(user, item, now));
+        check("findByItemIdAndBookerIdAndEndBefore", () -> bookingRepository.findByItemIdAndBookerIdAndEndBefore(
+                item, user, now));
+        check("lockIdsByStatusAndStartBefore", () -> bookingRepository.lockIdsByStatusAndStartBefore(
+                BookingStatus.WAITING, now, Limit.of(500)));
+        check("lockIdsByEndBefore", () -> bookingRepository.lockIdsByEndBefore(now.minusDays(30), Limit.of(1000)));
+        check("archived.findByBookerId", () -> archivedBookingRepository.findByBookerId(user, start, id, limit));
+        check("archived.findByBookerIdAndStatus", () -> archivedBookingRepository.findByBookerIdAndStatus(
+                user, BookingStatus.REJECTED, start, id, limit));
+        check("archived.findByOwnerId", () -> archivedBookingRepository.findByOwnerId(user, start, id, limit));
+        check("archived.findByOwnerIdAndStatus", () -> archivedBookingRepository.findByOwnerIdAndStatus(
+                user, BookingStatus.REJECTED, start, id, limit));
+        check("findByOwnerIdOrderByIdAsc", () -> itemRepository.findByOwnerIdOrderByIdAsc(user));
+        check("findIdsByOwnerId", () -> itemRepository.findIdsByOwnerId(user));
+        check("findByIdForUpdate", () -> itemRepository.findByIdForUpdate(item));
+        check("lockIdsByIdIn", () -> itemRepository.lockIdsByIdIn(items));
+        check("findWithAuthorByItemIdIn", () -> commentRepository.findWithAuthorByItemIdIn(items));
+        check("findByItemId", () -> commentRepository.findByItemId(item));
+        check("findAllByRequestorIdOrderByCreatedDesc", () -> itemRequestRepository
+                .findAllByRequestorIdOrderByCreatedDesc(user));
+        check("findAllByRequestorIdNot", () -> itemRequestRepository.findAllByRequestorIdNot(
+                user, PageRequest.of(0, 10, Sort.by("created").descending())));
+        check("findStaleItemIds", () -> itemBookingSummaryRepository.findStaleItemIds(now, Limit.of(10)));
+
+        assertThat(regressions, empty());
+    }
+
+    @Test
+    void ownerBookingQueries_shouldUseOwnerIndex() {
+        long owner = ID_BASE + 1;
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = BookingCursor.FIRST.getStart();
+        Long id = BookingCursor.FIRST.getId();
+        Limit limit = Limit.of(11);
+
+        checkIndex("findByOwnerId", "IX_BOOKINGS_OWNER_START",
+                () -> bookingRepository.findByOwnerId(owner, start, id, limit));
+        checkIndex("findPastByOwnerId", "IX_BOOKINGS_OWNER_START",
+                () -> bookingRepository.findPastByOwnerId(owner, now, start, id, limit));
+        checkIndex("findByOwnerIdAndStatus", "IX_BOOKINGS_OWNER_STATUS_START",
+                () -> bookingRepository.findByOwnerIdAndStatus(owner, BookingStatus.WAITING, start, id, limit));
+
+        assertThat(regressions, empty());
+    }
+
+    private void check(String name, Runnable query) {
+        for (String plan : explain(query)) {
+            for (String table : INDEXED_TABLES) {
+                if (plan.toUpperCase(Locale.ROOT).contains("PUBLIC." + table + ".TABLESCAN")) {
+                    regressions.add(name + ": полное сканирование " + table + "\n" + plan);
+                }
+            }
+        }
+    }
+
+    private void checkIndex(String name, String index, Runnable query) {
+        for (String plan : explain(query)) {
+            if (!plan.toUpperCase(Locale.ROOT).contains("PUBLIC." + index)) {
+                regressions.add(name + ": не используется индекс " + index + "\n" + plan);
+            }
+        }
+    }
+
+    private List<String> explain(Runnable query) {
+        CapturingStatementInspector.STATEMENTS.clear();
+        query.run();
+        List<String> plans = new ArrayList<>();
+        for (String sql : CapturingStatementInspector.STATEMENTS) {
+            plans.add(String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class)));
+        }
+        return plans;
+    }
+
+    public static class CapturingStatementInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@Transactional
+class BookingArchiverIntegrationTest {
+
+    @Autowired
+    private BookingArchiver bookingArchiver;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ArchivedBookingRepository archivedBookingRepository;
+
+    @Autowired
+    private ItemBookingSummaryService itemBookingSummaryService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private Long oldApproved;
+    private Long oldRejected;
+    private Long recent;
+    private Long upcoming;
+
+    @BeforeEach
+    void setup() {
+        owner = userRepository.save(new User(null, "Владелец", "archive-owner@email.com"));
+        booker = userRepository.save(new User(null, "Арендатор", "archive-booker@email.com"));
+        item = itemRepository.save(Item.builder()
+                .name("Велосипед")
+                .description("Горный")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        oldApproved = book(now.minusDays(90), now.minusDays(89));
+        bookingService.approveBooking(owner.getId(), oldApproved, true);
+        oldRejected = book(now.minusDays(80), now.minusDays(79));
+        bookingService.approveBooking(owner.getId(), oldRejected, false);
+        recent = book(now.minusDays(3), now.minusDays(2));
+        upcoming = book(now.plusDays(1), now.plusDays(2));
+        entityManager.flush();
+    }
+
+    @Test
+    void archive_shouldMoveOnlyLongFinishedBookings() {
+        bookingArchiver.archive();
+        entityManager.clear();
+
+        assertThat(bookingRepository.findAll().stream().map(Booking::getId).toList(),
+                containsInAnyOrder(recent, upcoming));
+        assertThat(archivedBookingRepository.findAll().stream().map(ArchivedBooking::getId).toList(),
+                containsInAnyOrder(oldApproved, oldRejected));
+    }
+
+    @Test
+    void getBookings_shouldReadArchiveForPastAllAndRejected() {
+        bookingArchiver.archive();
+        entityManager.clear();
+
+        assertThat(ids(BookingState.ALL), contains(upcoming, recent, oldRejected, oldApproved));
+        assertThat(ids(BookingState.PAST), contains(recent, oldRejected, oldApproved));
+        assertThat(ids(BookingState.REJECTED), contains(oldRejected));
+        assertThat(ids(BookingState.FUTURE), contains(upcoming));
+        assertThat(bookingService.getBookingsByOwner(owner.getId(), BookingState.ALL, null, 10).getBookings()
+                .stream().map(BookingResponseDTO::getId).toList(), contains(upcoming, recent, oldRejected, oldApproved));
+    }
+
+    @Test
+    void getBookings_shouldPageAcrossHotAndArchive() {
+        bookingArchiver.archive();
+        entityManager.clear();
+
+        List<Long> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            BookingPage page = bookingService.getBookingsByUser(booker.getId(), BookingState.ALL, cursor, 1);
+            page.getBookings().forEach(booking -> paged.add(booking.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(paged, contains(upcoming, recent, oldRejected, oldApproved));
+    }
+
+    @Test
+    void archivedBookings_shouldStayVisibleById() {
+        bookingArchiver.archive();
+        entityManager.clear();
+
+        BookingResponseDTO archived = bookingService.getBookingById(owner.getId(), oldApproved);
+
+        assertThat(archived.getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(archived.getItem().getName(), equalTo("Велосипед"));
+        assertThat(bookingRepository.hasUserBookedItem(booker.getId(), item.getId(), LocalDateTime.now()), is(true));
+    }
+
+    @Test
+    void itemSummary_shouldFallBackToArchivedLastBooking() {
+        bookingArchiver.archive();
+        entityManager.clear();
+
+        itemBookingSummaryService.refresh(item.getId());
+
+        assertThat(itemBookingSummaryService.findForItems(List.of(item.getId()), LocalDateTime.now())
+                .get(item.getId()).getLastBookingId(), equalTo(oldApproved));
+    }
+
+    @Test
+    void itemSummary_shouldKeepCountingArchivedApprovedBookings() {
+        bookingService.approveBooking(owner.getId(), recent, true);
+        bookingService.approveBooking(owner.getId(), upcoming, true);
+        bookingArchiver.archive();
+        entityManager.clear();
+
+        itemBookingSummaryService.refresh(item.getId());
+
+        ItemBookingSummary summary = itemBookingSummaryService.findForItems(List.of(item.getId()), LocalDateTime.now())
+                .get(item.getId());
+        assertThat(summary.getApprovedCount(), equalTo(3L));
+        assertThat(summary.getLastBookingId(), equalTo(recent));
+        assertThat(summary.getNextBookingId(), equalTo(upcoming));
+    }
+
+    private Long book(LocalDateTime start, LocalDateTime end) {
+        return bookingService.createBooking(booker.getId(), new BookingRequestDTO(item.getId(), start, end)).getId();
+    }
+
+    private List<Long> ids(BookingState state) {
+        return bookingService.getBookingsByUser(booker.getId(), state, null, 10).getBookings().stream()
+                .map(BookingResponseDTO::getId)
+                .toList();
+    }
+}
@@ -0,0 +1,275 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class BookingConcurrencyIntegrationTest {
+    private static final int THREADS = 8;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingStatsService bookingStatsService;
+
+    @Autowired
+    private BookingApprovalRetry bookingApprovalRetry;
+
+    @Autowired
+    private BookingExpirySweeper bookingExpirySweeper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void cleanup() {
+        itemBookingSummaryRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void create_whenRacingForSamePeriod_shouldAcceptOnlyOne() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "race-owner@email.com"));
+        Item item = itemRepository.save(
+                Item.builder()
+                        .name("Дрель")
+                        .description("Аккумуляторная")
+                        .available(true)
+                        .owner(owner)
+                        .build()
+        );
+        List<User> bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(new User(null, "Арендатор " + i, "race-booker" + i + "@email.com")));
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingRequestDTO request = new BookingRequestDTO(item.getId(), start, start.plusDays(1));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (User booker : bookers) {
+                results.add(executor.submit(() -> {
+                    ready.await();
+                    try {
+                        bookingService.createBooking(booker.getId(), request);
+                        return true;
+                    } catch (ConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            ready.countDown();
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    accepted++;
+                }
+            }
+
+            assertThat(accepted, equalTo(1));
+            assertThat(bookingRepository.count(), equalTo(1L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void approve_whenRacingForSameBooking_shouldDecideOnlyOnce() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "approve-owner@email.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "approve-booker@email.com"));
+        Item item = itemRepository.save(
+                Item.builder()
+                        .name("Дрель")
+                        .description("Аккумуляторная")
+                        .available(true)
+                        .owner(owner)
+                        .build()
+        );
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingResponseDTO booking = bookingService.createBooking(booker.getId(),
+                new BookingRequestDTO(item.getId(), start, start.plusDays(1)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                boolean approved = i % 2 == 0;
+                results.add(executor.submit(() -> {
+                    ready.await();
+                    try {
+                        bookingService.approveBooking(owner.getId(), booking.getId(), approved);
+                        return true;
+                    } catch (ConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            ready.countDown();
+            int decided = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    decided++;
+                }
+            }
+
+            assertThat(decided, equalTo(1));
+            Booking decidedBooking = bookingRepository.findById(booking.getId()).orElseThrow();
+            assertThat(decidedBooking.getVersion(), equalTo(1L));
+            BookingStatsDTO stats = bookingStatsService.getStats(owner.getId(), BookingRole.OWNER);
+            assertThat(stats.getWaiting(), equalTo(0L));
+            assertThat(stats.getRejected(), equalTo(decidedBooking.getStatus() == BookingStatus.REJECTED ? 1L : 0L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void approve_whenRacingForSameItem_shouldKeepSummaryConsistent() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "summary-owner@email.com"));
+        Item item = itemRepository.save(
+                Item.builder()
+                        .name("Дрель")
+                        .description("Аккумуляторная")
+                        .available(true)
+                        .owner(owner)
+                        .build()
+        );
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingResponseDTO> bookings = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            User booker = userRepository.save(new User(null, "Арендатор " + i, "summary-booker" + i + "@email.com"));
+            bookings.add(bookingService.createBooking(booker.getId(),
+                    new BookingRequestDTO(item.getId(), start.plusDays(i * 2L), start.plusDays(i * 2L + 1))));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (BookingResponseDTO booking : bookings) {
+                results.add(executor.submit(() -> {
+                    ready.await();
+                    return bookingService.approveBooking(owner.getId(), booking.getId(), true);
+                }));
+            }
+            ready.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+
+            ItemBookingSummary summary = itemBookingSummaryRepository.findById(item.getId()).orElseThrow();
+            assertThat(summary.getApprovedCount(), equalTo((long) THREADS));
+            assertThat(summary.getNextBookingId(), equalTo(bookings.get(0).getId()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void approvalRetry_shouldRetryVersionConflictsAndCountThem() {
+        double conflicts = meterRegistry.counter("shareit.booking.approval.conflicts").count();
+        double retries = meterRegistry.counter("shareit.booking.approval.retries").count();
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = bookingApprovalRetry.execute(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(Booking.class, 1L);
+            }
+            return "ok";
+        });
+
+        assertThat(result, equalTo("ok"));
+        assertThat(meterRegistry.counter("shareit.booking.approval.conflicts").count() - conflicts, equalTo(2.0));
+        assertThat(meterRegistry.counter("shareit.booking.approval.retries").count() - retries, equalTo(2.0));
+        assertThrows(ConflictException.class, () -> bookingApprovalRetry.execute(() -> {
+            throw new ObjectOptimisticLockingFailureException(Booking.class, 1L);
+        }));
+    }
+
+    @Test
+    void sweep_whenRunOnSeveralNodes_shouldCancelEachBookingOnce() throws Exception {
+        User owner = userRepository.save(new User(null, "Владелец", "sweep-owner@email.com"));
+        User booker = userRepository.save(new User(null, "Арендатор", "sweep-booker@email.com"));
+        Item item = itemRepository.save(
+                Item.builder()
+                        .name("Дрель")
+                        .description("Аккумуляторная")
+                        .available(true)
+                        .owner(owner)
+                        .build()
+        );
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 20; i++) {
+            bookingService.createBooking(booker.getId(),
+                    new BookingRequestDTO(item.getId(), now.minusHours(i * 2L), now.minusHours(i * 2L - 1)));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    ready.await();
+                    bookingExpirySweeper.sweep();
+                    return null;
+                }));
+            }
+            ready.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(bookingRepository.findAll().stream()
+                    .allMatch(booking -> booking.getStatus() == BookingStatus.CANCELED
+                            && booking.getVersion() == 1L), equalTo(true));
+            assertThat(bookingStatsService.getStats(booker.getId(), BookingRole.BOOKER).getWaiting(), equalTo(0L));
+            assertThat(bookingStatsService.getStats(owner.getId(), BookingRole.OWNER).getWaiting(), equalTo(0L));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
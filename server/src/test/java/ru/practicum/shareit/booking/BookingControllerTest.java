@@ -102,6 +102,20 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.error", containsString("Бронирование не найдено")));
     }
 
+    @Test
+    void approveBookings_200() throws Exception {
+        when(bookingService.approveBookings(1L, List.of(1L, 2L), true)).thenReturn(List.of(
+                BookingResponseDTO.builder().id(1L).status(BookingStatus.APPROVED).build(),
+                BookingResponseDTO.builder().id(2L).status(BookingStatus.APPROVED).build()));
+
+        mockMvc.perform(patch("/bookings?ids=1,2&approved=true")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].id", is(2)))
+                .andExpect(jsonPath("$[1].status", is("APPROVED")));
+    }
+
     @Test
     void getBookingById_200() throws Exception {
         when(bookingService.getBookingById(anyLong(), anyLong())).thenReturn(responseDto);
@@ -125,13 +139,16 @@ class BookingControllerTest {
 
     @Test
     void getBookingsByUser_200() throws Exception {
-        when(bookingService.getBookingsByUser(anyLong(), any()))
-                .thenReturn(List.of(responseDto));
+        when(bookingService.getBookingsByUser(anyLong(), any(), eq("abc"), eq(5)))
+                .thenReturn(new BookingPage(List.of(responseDto), "def"));
 
         mockMvc.perform(get("/bookings")
                         .header("X-Sharer-User-Id", 1L)
-                        .param("state", "ALL"))
+                        .param("state", "ALL")
+                        .param("cursor", "abc")
+                        .param("size", "5"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].item.name", is("Дрель")));
     }
@@ -147,20 +164,21 @@ class BookingControllerTest {
 
     @Test
     void getBookingsByOwner_200() throws Exception {
-        when(bookingService.getBookingsByOwner(anyLong(), any()))
-                .thenReturn(List.of(responseDto));
+        when(bookingService.getBookingsByOwner(anyLong(), any(), isNull(), eq(10)))
+                .thenReturn(new BookingPage(List.of(responseDto), null));
 
         mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
                         .param("state", "ALL"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$", hasSize(1)));
     }
 
     @Test
     void getBookingsByOwner_EmptyList() throws Exception {
-        when(bookingService.getBookingsByOwner(anyLong(), eq(BookingState.REJECTED)))
-                .thenReturn(List.of());
+        when(bookingService.getBookingsByOwner(anyLong(), eq(BookingState.REJECTED), any(), anyInt()))
+                .thenReturn(new BookingPage(List.of(), null));
 
         mockMvc.perform(get("/bookings/owner")
                         .header("X-Sharer-User-Id", 1L)
@@ -168,4 +186,20 @@ class BookingControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", empty()));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingStatsByOwner_200() throws Exception {
+        when(bookingService.getBookingStats(2L, BookingRole.OWNER))
+                .thenReturn(new BookingStatsDTO(5, 1, 2, 2, 1, 0));
+
+        mockMvc.perform(get("/bookings/owner/stats")
+                        .header("X-Sharer-User-Id", 2L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(5)))
+                .andExpect(jsonPath("$.current", is(1)))
+                .andExpect(jsonPath("$.past", is(2)))
+                .andExpect(jsonPath("$.future", is(2)))
+                .andExpect(jsonPath("$.waiting", is(1)))
+                .andExpect(jsonPath("$.rejected", is(0)));
+    }
+}
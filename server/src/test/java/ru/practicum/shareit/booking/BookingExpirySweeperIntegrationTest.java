@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "shareit.booking-expiry.batch-size=2")
+@ActiveProfiles("test")
+@Transactional
+class BookingExpirySweeperIntegrationTest {
+
+    @Autowired
+    private BookingExpirySweeper bookingExpirySweeper;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingStatsService bookingStatsService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private final List<Long> expired = new ArrayList<>();
+    private Long approved;
+    private Long upcoming;
+
+    @BeforeEach
+    void setup() {
+        owner = userRepository.save(new User(null, "Владелец", "expiry-owner@email.com"));
+        booker = userRepository.save(new User(null, "Арендатор", "expiry-booker@email.com"));
+        Item item = itemRepository.save(Item.builder()
+                .name("Лодка")
+                .description("Надувная")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 5; i++) {
+            expired.add(bookingService.createBooking(booker.getId(),
+                    new BookingRequestDTO(item.getId(), now.minusDays(i * 2L), now.minusDays(i * 2L - 1))).getId());
+        }
+        approved = bookingService.createBooking(booker.getId(),
+                new BookingRequestDTO(item.getId(), now.minusDays(20), now.minusDays(19))).getId();
+        bookingService.approveBooking(owner.getId(), approved, true);
+        upcoming = bookingService.createBooking(booker.getId(),
+                new BookingRequestDTO(item.getId(), now.plusDays(1), now.plusDays(2))).getId();
+        entityManager.flush();
+    }
+
+    @Test
+    void sweep_shouldCancelWaitingBookingsThatAlreadyStarted() {
+        bookingExpirySweeper.sweep();
+        entityManager.clear();
+
+        for (Long id : expired) {
+            Booking booking = bookingRepository.findById(id).orElseThrow();
+            assertThat(booking.getStatus(), equalTo(BookingStatus.CANCELED));
+            assertThat(booking.getVersion(), equalTo(1L));
+        }
+        assertThat(bookingRepository.findById(approved).orElseThrow().getStatus(), equalTo(BookingStatus.APPROVED));
+        assertThat(bookingRepository.findById(upcoming).orElseThrow().getStatus(), equalTo(BookingStatus.WAITING));
+        assertThat(bookingService.getBookingsByUser(booker.getId(), BookingState.WAITING, null, 10).getBookings()
+                .stream().map(BookingResponseDTO::getId).toList(), contains(upcoming));
+        assertThat(bookingStatsService.getStats(booker.getId(), BookingRole.BOOKER).getWaiting(), equalTo(1L));
+        assertThat(bookingStatsService.getStats(owner.getId(), BookingRole.OWNER).getWaiting(), equalTo(1L));
+    }
+
+    @Test
+    void sweepBatch_shouldBeBoundedAndNotReprocess() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(bookingExpirySweeper.sweepBatch(now), equalTo(2));
+        assertThat(bookingExpirySweeper.sweepBatch(now), equalTo(2));
+        assertThat(bookingExpirySweeper.sweepBatch(now), equalTo(1));
+        assertThat(bookingExpirySweeper.sweepBatch(now), equalTo(0));
+        assertThat(bookingStatsService.getStats(booker.getId(), BookingRole.BOOKER).getWaiting(), equalTo(1L));
+    }
+}
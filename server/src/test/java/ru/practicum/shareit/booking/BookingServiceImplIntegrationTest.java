@@ -1,5 +1,8 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -7,6 +10,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemRepository;
@@ -14,6 +18,8 @@ import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -34,9 +40,18 @@ class BookingServiceImplIntegrationTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Autowired
+    private ItemBookingSummaryService itemBookingSummaryService;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     private User owner;
     private User booker;
     private Item availableItem;
@@ -115,6 +130,37 @@ class BookingServiceImplIntegrationTest {
                 () -> bookingService.createBooking(owner.getId(), request));
     }
 
+    @Test
+    void create_whenOverlapsWaitingBooking() {
+        BookingRequestDTO request = new BookingRequestDTO(
+                availableItem.getId(),
+                futureBooking.getStart().plusHours(1),
+                futureBooking.getEnd().plusDays(1)
+        );
+
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(booker.getId(), request));
+    }
+
+    @Test
+    void create_whenAdjacentOrOverlapsRejectedBooking() {
+        LocalDateTime start = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.SECONDS);
+        bookingRepository.save(
+                Booking.builder()
+                        .start(start)
+                        .end(start.plusDays(1))
+                        .item(availableItem)
+                        .booker(booker)
+                        .status(BookingStatus.REJECTED)
+                        .build()
+        );
+        BookingRequestDTO overlapping = new BookingRequestDTO(availableItem.getId(), start, start.plusDays(1));
+        BookingRequestDTO adjacent = new BookingRequestDTO(availableItem.getId(), start.plusDays(1), start.plusDays(2));
+
+        assertThat(bookingService.createBooking(booker.getId(), overlapping).getId(), notNullValue());
+        assertThat(bookingService.createBooking(booker.getId(), adjacent).getId(), notNullValue());
+    }
+
     @Test
     void create_whenUnavailable() {
         BookingRequestDTO request = new BookingRequestDTO(
@@ -138,6 +184,43 @@ class BookingServiceImplIntegrationTest {
         assertThat(response.getStatus(), equalTo(BookingStatus.APPROVED));
     }
 
+    @Test
+    void approve_shouldRefreshItemBookingSummary() {
+        bookingService.approveBooking(owner.getId(), futureBooking.getId(), true);
+
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(availableItem.getId()).orElseThrow();
+        assertThat(summary.getLastBookingId(), equalTo(pastBooking.getId()));
+        assertThat(summary.getNextBookingId(), equalTo(futureBooking.getId()));
+        assertThat(summary.getNextBookerId(), equalTo(booker.getId()));
+        assertThat(summary.getApprovedCount(), equalTo(2L));
+        assertThat(summary.getValidUntil(), greaterThan(LocalDateTime.now()));
+    }
+
+    @Test
+    void approve_whenOwnerRejects_shouldNotTouchSummary() {
+        bookingService.approveBooking(owner.getId(), futureBooking.getId(), false);
+
+        assertThat(itemBookingSummaryRepository.findById(availableItem.getId()).isPresent(), is(false));
+    }
+
+    @Test
+    void rollForward_shouldMoveStartedBookingsOutOfNext() {
+        itemBookingSummaryRepository.save(ItemBookingSummary.builder()
+                .itemId(availableItem.getId())
+                .nextBookingId(pastBooking.getId())
+                .nextBookerId(booker.getId())
+                .approvedCount(1)
+                .validUntil(LocalDateTime.now().minusDays(2))
+                .build());
+
+        itemBookingSummaryService.rollForward();
+
+        ItemBookingSummary rolled = itemBookingSummaryRepository.findById(availableItem.getId()).orElseThrow();
+        assertThat(rolled.getLastBookingId(), equalTo(pastBooking.getId()));
+        assertThat(rolled.getNextBookingId(), nullValue());
+        assertThat(rolled.getValidUntil(), nullValue());
+    }
+
     @Test
     void approve_whenOwnerRejects() {
         BookingResponseDTO response = bookingService.approveBooking(
@@ -155,6 +238,44 @@ class BookingServiceImplIntegrationTest {
                 () -> bookingService.approveBooking(booker.getId(), futureBooking.getId(), true));
     }
 
+    @Test
+    void approveBookings_shouldDecideAllInOneCall() {
+        Booking secondFuture = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.now().plusDays(5))
+                .end(LocalDateTime.now().plusDays(6))
+                .item(availableItem)
+                .booker(booker)
+                .status(BookingStatus.WAITING)
+                .build());
+
+        List<BookingResponseDTO> responses = bookingService.approveBookings(owner.getId(),
+                List.of(secondFuture.getId(), futureBooking.getId(), futureBooking.getId()), true);
+
+        assertThat(responses.stream().map(BookingResponseDTO::getId).toList(),
+                contains(futureBooking.getId(), secondFuture.getId()));
+        assertThat(responses.stream().allMatch(r -> r.getStatus() == BookingStatus.APPROVED), is(true));
+        assertThat(bookingRepository.findById(secondFuture.getId()).orElseThrow().getVersion(), equalTo(1L));
+        assertThat(itemBookingSummaryRepository.findById(availableItem.getId()).orElseThrow().getApprovedCount(),
+                equalTo(3L));
+    }
+
+    @Test
+    void approveBookings_whenAnyNotWaiting_shouldRejectWholeBatch() {
+        assertThrows(ConflictException.class, () -> bookingService.approveBookings(owner.getId(),
+                List.of(futureBooking.getId(), pastBooking.getId()), false));
+
+        assertThat(bookingRepository.findById(futureBooking.getId()).orElseThrow().getStatus(),
+                equalTo(BookingStatus.WAITING));
+    }
+
+    @Test
+    void approveBookings_whenUnknownOrEmpty() {
+        assertThrows(NotFoundException.class, () -> bookingService.approveBookings(owner.getId(),
+                List.of(futureBooking.getId(), 999L), true));
+        assertThrows(ValidationException.class, () -> bookingService.approveBookings(owner.getId(),
+                List.of(), true));
+    }
+
     @Test
     void approve_whenNotWaiting() {
         assertThrows(ConflictException.class,
@@ -188,8 +309,10 @@ class BookingServiceImplIntegrationTest {
     void getByUser_all() {
         List<BookingResponseDTO> bookings = bookingService.getBookingsByUser(
                 booker.getId(),
-                BookingState.ALL
-        );
+                BookingState.ALL,
+                null,
+                10
+        ).getBookings();
 
         assertThat(bookings, hasSize(2));
         assertThat(bookings.get(0).getId(), equalTo(futureBooking.getId()));
@@ -209,8 +332,10 @@ class BookingServiceImplIntegrationTest {
 
         List<BookingResponseDTO> bookings = bookingService.getBookingsByUser(
                 booker.getId(),
-                BookingState.CURRENT
-        );
+                BookingState.CURRENT,
+                null,
+                10
+        ).getBookings();
 
         assertThat(bookings, hasSize(1));
         assertThat(bookings.get(0).getId(), equalTo(currentBooking.getId()));
@@ -220,8 +345,10 @@ class BookingServiceImplIntegrationTest {
     void getByUser_past() {
         List<BookingResponseDTO> bookings = bookingService.getBookingsByUser(
                 booker.getId(),
-                BookingState.PAST
-        );
+                BookingState.PAST,
+                null,
+                10
+        ).getBookings();
 
         assertThat(bookings, hasSize(1));
         assertThat(bookings.get(0).getId(), equalTo(pastBooking.getId()));
@@ -231,8 +358,10 @@ class BookingServiceImplIntegrationTest {
     void getByUser_future() {
         List<BookingResponseDTO> bookings = bookingService.getBookingsByUser(
                 booker.getId(),
-                BookingState.FUTURE
-        );
+                BookingState.FUTURE,
+                null,
+                10
+        ).getBookings();
 
         assertThat(bookings, hasSize(1));
         assertThat(bookings.get(0).getId(), equalTo(futureBooking.getId()));
@@ -242,8 +371,10 @@ class BookingServiceImplIntegrationTest {
     void getByOwner_all() {
         List<BookingResponseDTO> bookings = bookingService.getBookingsByOwner(
                 owner.getId(),
-                BookingState.ALL
-        );
+                BookingState.ALL,
+                null,
+                10
+        ).getBookings();
 
         assertThat(bookings, hasSize(2));
     }
@@ -252,10 +383,92 @@ class BookingServiceImplIntegrationTest {
     void getByOwner_waiting() {
         List<BookingResponseDTO> bookings = bookingService.getBookingsByOwner(
                 owner.getId(),
-                BookingState.WAITING
-        );
+                BookingState.WAITING,
+                null,
+                10
+        ).getBookings();
 
         assertThat(bookings, hasSize(1));
         assertThat(bookings.get(0).getStatus(), equalTo(BookingStatus.WAITING));
     }
+
+    @Test
+    void getByOwner_shouldWalkAllPagesWithCursor() {
+        LocalDateTime start = LocalDateTime.now().plusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 4; i++) {
+            bookingRepository.save(
+                    Booking.builder()
+                            .start(start)
+                            .end(start.plusHours(1))
+                            .item(availableItem)
+                            .booker(booker)
+                            .status(BookingStatus.REJECTED)
+                            .build()
+            );
+        }
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            BookingPage page = bookingService.getBookingsByOwner(owner.getId(), BookingState.ALL, cursor, 2);
+            page.getBookings().forEach(booking -> seen.add(booking.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages, equalTo(3));
+        assertThat(seen, hasSize(6));
+        assertThat(seen.get(seen.size() - 1), equalTo(pastBooking.getId()));
+        assertThat(seen.stream().distinct().count(), equalTo(6L));
+    }
+
+    @Test
+    void getBookingsPage_shouldLoadItemsAndBookersInOneStatement() {
+        for (int i = 1; i <= 10; i++) {
+            User anotherBooker = userRepository.save(new User(null, "Арендатор " + i, "booker" + i + "@email.com"));
+            Item anotherItem = itemRepository.save(
+                    Item.builder()
+                            .name("Вещь " + i)
+                            .description("Простая")
+                            .available(true)
+                            .owner(owner)
+                            .build()
+            );
+            bookingRepository.save(
+                    Booking.builder()
+                            .start(LocalDateTime.now().plusDays(i))
+                            .end(LocalDateTime.now().plusDays(i + 1))
+                            .item(anotherItem)
+                            .booker(anotherBooker)
+                            .status(BookingStatus.APPROVED)
+                            .build()
+            );
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            List<BookingResponseDTO> bookings = bookingService.getBookingsByOwner(
+                    owner.getId(), BookingState.FUTURE, null, 10).getBookings();
+
+            assertThat(bookings, hasSize(10));
+            assertThat(bookings.get(0).getItem().getName(), equalTo("Вещь 10"));
+            assertThat(statistics.getPrepareStatementCount(), lessThanOrEqualTo(2L));
+            assertThat(statistics.getEntityLoadCount(), lessThanOrEqualTo(1L));
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    @Test
+    void getByUser_whenCursorMalformed_shouldThrow() {
+        assertThrows(ValidationException.class,
+                () -> bookingService.getBookingsByUser(booker.getId(), BookingState.ALL, "не-курсор", 10));
+    }
 }
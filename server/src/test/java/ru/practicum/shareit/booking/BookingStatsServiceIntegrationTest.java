@@ -0,0 +1,153 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@Transactional
+class BookingStatsServiceIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingStatsService bookingStatsService;
+
+    @Autowired
+    private BookingCounterDeltaRepository deltaRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setup() {
+        owner = userRepository.save(new User(null, "Владелец", "stats-owner@email.com"));
+        booker = userRepository.save(new User(null, "Арендатор", "stats-booker@email.com"));
+        item = itemRepository.save(Item.builder()
+                .name("Палатка")
+                .description("Трёхместная")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        BookingResponseDTO past = book(now.minusDays(3), now.minusDays(2));
+        BookingResponseDTO current = book(now.minusHours(1), now.plusHours(1));
+        BookingResponseDTO future = book(now.plusDays(1), now.plusDays(2));
+        book(now.plusDays(3), now.plusDays(4));
+        bookingService.approveBooking(owner.getId(), past.getId(), true);
+        bookingService.approveBooking(owner.getId(), current.getId(), true);
+        bookingService.approveBooking(owner.getId(), future.getId(), false);
+    }
+
+    @Test
+    void getStats_shouldCountBookingsPerState() {
+        BookingStatsDTO expected = new BookingStatsDTO(4, 1, 1, 2, 1, 1);
+
+        assertThat(bookingStatsService.getStats(booker.getId(), BookingRole.BOOKER), equalTo(expected));
+        assertThat(bookingStatsService.getStats(owner.getId(), BookingRole.OWNER), equalTo(expected));
+        assertThat(bookingStatsService.getStats(owner.getId(), BookingRole.BOOKER), equalTo(new BookingStatsDTO()));
+    }
+
+    @Test
+    void getStats_shouldMatchBookingLists() {
+        BookingStatsDTO stats = bookingStatsService.getStats(booker.getId(), BookingRole.BOOKER);
+
+        for (BookingState state : BookingState.values()) {
+            int listed = bookingService.getBookingsByUser(booker.getId(), state, null, 100).getBookings().size();
+            assertThat(state.name(), (long) listed, equalTo(count(stats, state)));
+        }
+    }
+
+    @Test
+    void rollOver_shouldCompactDueDeltasWithoutChangingCounts() {
+        BookingStatsDTO before = bookingStatsService.getStats(booker.getId(), BookingRole.BOOKER);
+
+        bookingStatsService.rollOver();
+
+        assertThat(bookingStatsService.getStats(booker.getId(), BookingRole.BOOKER), equalTo(before));
+        assertThat(bookingStatsService.getStats(owner.getId(), BookingRole.OWNER), equalTo(before));
+        assertThat(deltaRepository.findAll().stream().filter(BookingCounterDelta::isRolledUp).count(), equalTo(2L));
+        assertThat(deltaRepository.findAll().stream()
+                .filter(delta -> !delta.isRolledUp())
+                .allMatch(delta -> delta.getEffectiveAt().isAfter(LocalDateTime.now())), is(true));
+    }
+
+    @Test
+    void deleteItem_shouldWithdrawCascadedBookingsFromStats() {
+        itemService.deleteItem(item.getId());
+
+        assertThat(bookingStatsService.getStats(booker.getId(), BookingRole.BOOKER), equalTo(new BookingStatsDTO()));
+        assertThat(bookingStatsService.getStats(owner.getId(), BookingRole.OWNER), equalTo(new BookingStatsDTO()));
+        bookingStatsService.rollOver();
+        assertThat(bookingStatsService.getStats(booker.getId(), BookingRole.BOOKER), equalTo(new BookingStatsDTO()));
+    }
+
+    @Test
+    void deleteUser_shouldWithdrawCascadedBookingsOfOtherParty() {
+        userService.deleteUser(owner.getId());
+
+        BookingCountersView counters = deltaRepository.sumEffective(booker.getId(), BookingRole.BOOKER,
+                LocalDateTime.now().plusDays(5));
+        assertThat(List.of(counters.getTotal(), counters.getWaiting(), counters.getRejected(),
+                counters.getStarted(), counters.getEnded()), everyItem(equalTo(0L)));
+    }
+
+    @Test
+    void getStats_whenUserNotFound() {
+        assertThrows(NotFoundException.class, () -> bookingStatsService.getStats(999L, BookingRole.BOOKER));
+    }
+
+    private BookingResponseDTO book(LocalDateTime start, LocalDateTime end) {
+        return bookingService.createBooking(booker.getId(), new BookingRequestDTO(item.getId(), start, end));
+    }
+
+    private long count(BookingStatsDTO stats, BookingState state) {
+        switch (state) {
+            case CURRENT:
+                return stats.getCurrent();
+            case PAST:
+                return stats.getPast();
+            case FUTURE:
+                return stats.getFuture();
+            case WAITING:
+                return stats.getWaiting();
+            case REJECTED:
+                return stats.getRejected();
+            default:
+                return stats.getAll();
+        }
+    }
+}
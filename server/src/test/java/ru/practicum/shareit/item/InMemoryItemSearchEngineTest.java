@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class InMemoryItemSearchEngineTest {
+    private final ItemRepository itemRepository = mock(ItemRepository.class);
+    private final InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(itemRepository,
+            new SimpleMeterRegistry());
+
+    @Test
+    void build_shouldReplayEventsThatArrivedWhileLoading() {
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            engine.onItemChanged(new ItemChangedEvent(1L, "Молоток", "", true, false));
+            engine.onItemChanged(ItemChangedEvent.deleted(2L));
+            return List.of(view(1L, "Дрель"), view(2L, "Пила"));
+        });
+        database(Map.of(1L, "молоток"));
+
+        engine.build();
+
+        assertEquals(List.of(1L), ids(engine.searchAvailable("молот", PageRequest.of(0, 10))));
+        assertTrue(engine.searchAvailable("дрель", PageRequest.of(0, 10)).isEmpty());
+        assertTrue(engine.searchAvailable("пила", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void searchAvailable_shouldPageOverCandidatesConfirmedByDatabase() {
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(view(1L, "Дрель"), view(2L, "Дрель"), view(3L, "Дрель"), view(4L, "Дрель")));
+        database(Map.of(2L, "дрель", 3L, "дрель", 4L, "дрель"));
+        engine.build();
+
+        assertEquals(List.of(3L), ids(engine.searchAvailable("дрель", PageRequest.of(1, 1))));
+        verify(itemRepository).searchAvailableItemsAmong(List.of(1L, 2L), "дрель");
+        verify(itemRepository).searchAvailableItemsAmong(List.of(3L, 4L), "дрель");
+        assertEquals(List.of(2L, 3L, 4L), ids(engine.searchAvailable("дрель", PageRequest.of(0, 10))));
+    }
+
+    private void database(Map<Long, String> names) {
+        when(itemRepository.searchAvailableItemsAmong(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            String text = invocation.getArgument(1);
+            return ids.stream()
+                    .filter(id -> names.getOrDefault(id, "").contains(text))
+                    .map(InMemoryItemSearchEngineTest::item)
+                    .toList();
+        });
+    }
+
+    private static ItemSearchView view(Long id, String name) {
+        return new ItemSearchView() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getName() {
+                return name;
+            }
+
+            public String getDescription() {
+                return "";
+            }
+
+            public Boolean getAvailable() {
+                return true;
+            }
+        };
+    }
+
+    private static Item item(Long id) {
+        return Item.builder().id(id).available(true).build();
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).toList();
+    }
+}
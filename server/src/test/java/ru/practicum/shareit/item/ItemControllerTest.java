@@ -9,13 +9,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.ConditionalGetFilter;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -140,17 +145,45 @@ class ItemControllerTest {
 
     @Test
     void getById() throws Exception {
-        when(itemService.getItemById(1L)).thenReturn(response);
+        when(itemService.getItemById(1L, 1L)).thenReturn(response);
 
-        mockMvc.perform(get("/items/1"))
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.name").value("Дрель"));
     }
 
+    @Test
+    void getById_notModifiedWithoutLoadingItem() throws Exception {
+        String etag = ConditionalGetFilter.etag(objectMapper.writeValueAsBytes(response));
+        when(itemService.getItemEtag(1L, 2L)).thenReturn(etag);
+
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 2L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).getItemById(any(), any());
+    }
+
+    @Test
+    void getById_etagOfCachedItemMatchesRenderedBody() throws Exception {
+        when(itemService.getItemById(1L, 2L)).thenReturn(response);
+
+        mockMvc.perform(get("/items/1")
+                        .header("X-Sharer-User-Id", 2L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG,
+                        ConditionalGetFilter.etag(objectMapper.writeValueAsBytes(response))));
+    }
+
     @Test
     void getByIdNotFound() throws Exception {
-        when(itemService.getItemById(999L)).thenThrow(new NotFoundException("Вещь не найдена"));
+        when(itemService.getItemById(999L, null)).thenThrow(new NotFoundException("Вещь не найдена"));
 
         mockMvc.perform(get("/items/999"))
                 .andExpect(status().isNotFound())
@@ -170,7 +203,7 @@ class ItemControllerTest {
 
     @Test
     void search() throws Exception {
-        when(itemService.searchAvailableItems("дрель")).thenReturn(List.of(response));
+        when(itemService.searchAvailableItems("дрель", 0, 10)).thenReturn(List.of(response));
 
         mockMvc.perform(get("/items/search")
                         .param("text", "дрель"))
@@ -179,6 +212,86 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Дрель"));
     }
 
+    @Test
+    void searchPage() throws Exception {
+        when(itemService.searchAvailableItems("дрель", 20, 5)).thenReturn(List.of(response));
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .param("from", "20")
+                        .param("size", "5")
+                        .accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void getAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 10, 0, 0);
+        ItemAvailabilityDTO availability = ItemAvailabilityDTO.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .busy(List.of(new ItemAvailabilityDTO.IntervalDTO(from.plusDays(2), from.plusDays(3))))
+                .free(List.of(new ItemAvailabilityDTO.IntervalDTO(from, from.plusDays(2)),
+                        new ItemAvailabilityDTO.IntervalDTO(from.plusDays(3), to)))
+                .build();
+        when(itemService.getItemAvailability(1L, from, to)).thenReturn(availability);
+
+        mockMvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-10T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1))
+                .andExpect(jsonPath("$.busy", hasSize(1)))
+                .andExpect(jsonPath("$.free", hasSize(2)))
+                .andExpect(jsonPath("$.free[1].start").value("2030-01-04T00:00:00"));
+    }
+
+    @Test
+    void getOwnerAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 10, 0, 0);
+        when(itemService.getOwnerAvailability(1L, from, to)).thenReturn(List.of(
+                ItemAvailabilityDTO.builder().itemId(1L).build(),
+                ItemAvailabilityDTO.builder().itemId(2L).build()));
+
+        mockMvc.perform(get("/items/availability")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-10T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].itemId").value(2));
+    }
+
+    @Test
+    void searchStream() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ItemResponseDTO> consumer = invocation.getArgument(1);
+            consumer.accept(response);
+            consumer.accept(response);
+            return null;
+        }).when(itemService).streamAvailableItems(eq("дрель"), any());
+
+        MvcResult result = mockMvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("Дрель", objectMapper.readValue(lines[0], ItemResponseDTO.class).getName());
+    }
+
     @Test
     void searchEmpty() throws Exception {
         mockMvc.perform(get("/items/search")
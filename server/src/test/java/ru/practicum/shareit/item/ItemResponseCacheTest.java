@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.ConditionalGetFilter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemResponseCacheTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LocalItemCacheInvalidationChannel channel = new LocalItemCacheInvalidationChannel();
+    private final AtomicLong clock = new AtomicLong();
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final ItemResponseCache cache = new ItemResponseCache(2, Duration.ofSeconds(10), channel, objectMapper,
+            registry, clock::get);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void get_shouldLoadOnceAndCountHitsAndMisses() {
+        assertEquals("Дрель", cache.get(1L, () -> load(1L)).getName());
+        assertEquals("Дрель", cache.get(1L, () -> load(1L)).getName());
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, registry.counter("shareit.item-cache.hits").count());
+        assertEquals(1.0, registry.counter("shareit.item-cache.misses").count());
+    }
+
+    @Test
+    void get_shouldReturnIndependentCopies() {
+        cache.get(1L, () -> load(1L)).getComments().clear();
+        cache.get(1L, () -> load(1L)).setName("Испорчено");
+
+        ItemResponseDTO cached = cache.get(1L, () -> load(1L));
+        assertEquals("Дрель", cached.getName());
+        assertEquals(1, cached.getComments().size());
+    }
+
+    @Test
+    void get_shouldEvictLeastRecentlyUsedAndExpired() {
+        cache.get(1L, () -> load(1L));
+        cache.get(2L, () -> load(2L));
+        cache.get(1L, () -> load(1L));
+        cache.get(3L, () -> load(3L));
+
+        assertEquals(2, cache.size());
+        assertEquals(1.0, registry.counter("shareit.item-cache.evictions", "cause", "size").count());
+        cache.get(1L, () -> load(1L));
+        assertEquals(3, loads.get());
+
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        cache.get(1L, () -> load(1L));
+        assertEquals(4, loads.get());
+        assertEquals(1.0, registry.counter("shareit.item-cache.evictions", "cause", "expired").count());
+    }
+
+    @Test
+    void channel_shouldInvalidateEntryAndDiscardLoadsThatRacedWithIt() {
+        cache.get(1L, () -> load(1L));
+        channel.publish(1L);
+
+        assertEquals(0, cache.size());
+        assertEquals(1.0, registry.counter("shareit.item-cache.evictions", "cause", "invalidated").count());
+
+        cache.get(2L, () -> {
+            channel.publish(2L);
+            return load(2L);
+        });
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void etag_shouldDescribeCachedBodyForOtherUsersOnly() throws Exception {
+        assertNull(cache.etag(1L, 2L));
+
+        ItemResponseDTO loaded = cache.get(1L, () -> load(1L));
+
+        assertEquals(ConditionalGetFilter.etag(objectMapper.writeValueAsBytes(loaded)), cache.etag(1L, 2L));
+        assertEquals(cache.etag(1L, 2L), cache.etag(1L, null));
+        assertNull(cache.etag(1L, 1L));
+
+        channel.publish(1L);
+        assertNull(cache.etag(1L, 2L));
+
+        cache.get(1L, () -> load(1L));
+        clock.addAndGet(Duration.ofSeconds(11).toNanos());
+        assertNull(cache.etag(1L, 2L));
+    }
+
+    @Test
+    void get_insideTransaction_shouldStoreOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.get(1L, () -> load(1L));
+            assertEquals(0, cache.size());
+
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+            assertEquals(0, cache.size());
+
+            cache.get(1L, () -> load(1L));
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+            assertEquals(1, cache.size());
+            assertEquals(2, loads.get());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private ItemResponseDTO load(Long id) {
+        loads.incrementAndGet();
+        return ItemResponseDTO.builder()
+                .id(id)
+                .name("Дрель")
+                .ownerId(1L)
+                .comments(new ArrayList<>(List.of(new CommentResponseDTO(1L, "Отлично", "Автор", null))))
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchIndexTest {
+
+    @Test
+    void search_findsSubstringInNameOrDescription() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.index(1L, "Дрель", "Аккумуляторная", true);
+        index.index(2L, "Шуруповерт", "Почти как дрель", true);
+        index.index(3L, "Отвертка", "Крестовая", true);
+
+        assertArrayEquals(new long[]{1L, 2L}, index.search("ДРЕЛ"));
+        assertArrayEquals(new long[]{3L}, index.search("вая"));
+        assertArrayEquals(new long[0], index.search("пила"));
+    }
+
+    @Test
+    void search_withShortQuery_matchesGramPrefixes() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.index(5L, "Ящик", "Деревянный", true);
+        index.index(4L, "Ключ", "Гаечный", true);
+        index.index(6L, "Я", "", true);
+
+        assertArrayEquals(new long[]{4L, 5L}, index.search("й"));
+        assertArrayEquals(new long[]{4L, 5L}, index.search("ЫЙ"));
+        assertArrayEquals(new long[]{5L, 6L}, index.search("я"));
+        assertArrayEquals(new long[]{4L}, index.search("ч"));
+    }
+
+    @Test
+    void index_skipsUnavailableAndReplacesOldText() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.index(1L, "Дрель", "Простая", true);
+        index.index(2L, "Дрель", "Сломанная", false);
+
+        index.index(1L, "Молоток", "Простой", true);
+
+        assertArrayEquals(new long[0], index.search("сломан"));
+        assertArrayEquals(new long[]{1L}, index.search("молот"));
+        assertEquals(1, index.size());
+        assertEquals(1, index.stale());
+    }
+
+    @Test
+    void remove_hidesDocumentUntilRebuild() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.index(1L, "Дрель", "Простая", true);
+        index.index(2L, "Дрель", "Сложная", true);
+        int terms = index.termCount();
+
+        index.remove(1L);
+        index.remove(3L);
+
+        assertArrayEquals(new long[]{2L}, index.search("дрель"));
+        assertArrayEquals(new long[]{2L}, index.search("д"));
+        assertEquals(1, index.size());
+        assertEquals(1, index.stale());
+        assertEquals(terms, index.termCount());
+    }
+
+    @Test
+    void index_shouldKeepManyDocumentsAddressable() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        for (long id = 1; id <= 1000; id++) {
+            index.index(id, "Вещь " + id, "", true);
+        }
+        for (long id = 2; id <= 1000; id += 2) {
+            index.remove(id);
+        }
+
+        assertEquals(500, index.size());
+        assertArrayEquals(new long[]{777L}, index.search("щь 777"));
+        assertArrayEquals(new long[0], index.search("щь 778"));
+    }
+}
@@ -1,13 +1,21 @@
 package ru.practicum.shareit.item;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.ItemBookingSummaryRepository;
+import ru.practicum.shareit.booking.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.request.ItemRequest;
@@ -46,6 +54,18 @@ class ItemServiceImplIntegrationTest {
     @Autowired
     private CommentRepository commentRepository;
 
+    @Autowired
+    private ItemBookingSummaryService bookingSummaryService;
+
+    @Autowired
+    private ItemBookingSummaryRepository itemBookingSummaryRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void createItem_shouldSaveItem() {
         User owner = userRepository.save(new User(null, "Георгий", "owner@email.com"));
@@ -56,6 +76,9 @@ class ItemServiceImplIntegrationTest {
         Item savedItem = itemRepository.findById(response.getId()).orElseThrow();
         assertThat(savedItem.getName(), equalTo("Дрель"));
         assertThat(savedItem.getOwner().getId(), equalTo(owner.getId()));
+        ItemBookingSummary summary = itemBookingSummaryRepository.findById(response.getId()).orElseThrow();
+        assertThat(summary.getApprovedCount(), equalTo(0L));
+        assertThat(summary.getValidUntil(), nullValue());
     }
 
     @Test
@@ -127,7 +150,7 @@ class ItemServiceImplIntegrationTest {
                         .build()
         );
 
-        ItemResponseDTO result = itemService.getItemById(item.getId());
+        ItemResponseDTO result = itemService.getItemById(item.getId(), owner.getId());
 
         assertThat(result.getId(), equalTo(item.getId()));
         assertThat(result.getName(), equalTo("Дрель"));
@@ -175,6 +198,140 @@ class ItemServiceImplIntegrationTest {
         assertThat(items.get(0).getNextBooking(), notNullValue());
     }
 
+    @Test
+    void getAllItemsByOwner_shouldPickNearestApprovedBookingsPerItem() {
+        User owner = userRepository.save(new User(null, "Георгий1", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "Георгий2", "booker@email.com"));
+        Item drill = itemRepository.save(
+                Item.builder().name("Дрель").description("Простая").available(true).owner(owner).build());
+        Item saw = itemRepository.save(
+                Item.builder().name("Пила").description("Ручная").available(true).owner(owner).build());
+
+        LocalDateTime now = LocalDateTime.now();
+        saveBooking(drill, booker, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        Booking drillLast = saveBooking(drill, booker, now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        saveBooking(drill, booker, now.minusDays(1), now.minusHours(1), BookingStatus.REJECTED);
+        saveBooking(drill, booker, now.minusHours(1), now.plusHours(1), BookingStatus.APPROVED);
+        saveBooking(drill, booker, now.plusHours(2), now.plusHours(3), BookingStatus.WAITING);
+        Booking drillNext = saveBooking(drill, booker, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        saveBooking(drill, booker, now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED);
+        Booking sawNext = saveBooking(saw, booker, now.plusDays(2), now.plusDays(3), BookingStatus.APPROVED);
+
+        List<ItemResponseDTO> items = itemService.getAllItemsByOwner(owner.getId());
+
+        assertThat(items, hasSize(2));
+        assertThat(items.get(0).getLastBooking().getId(), equalTo(drillLast.getId()));
+        assertThat(items.get(0).getLastBooking().getBookerId(), equalTo(booker.getId()));
+        assertThat(items.get(0).getNextBooking().getId(), equalTo(drillNext.getId()));
+        assertThat(items.get(1).getLastBooking(), nullValue());
+        assertThat(items.get(1).getNextBooking().getId(), equalTo(sawNext.getId()));
+    }
+
+    @Test
+    void getItemById_shouldShowBookingsOnlyToOwner() {
+        User owner = userRepository.save(new User(null, "Георгий1", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "Георгий2", "booker@email.com"));
+        Item item = itemRepository.save(
+                Item.builder().name("Дрель").description("Простая").available(true).owner(owner).build());
+        LocalDateTime now = LocalDateTime.now();
+        Booking last = saveBooking(item, booker, now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+        Booking next = saveBooking(item, booker, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+
+        ItemResponseDTO forOwner = itemService.getItemById(item.getId(), owner.getId());
+        ItemResponseDTO forBooker = itemService.getItemById(item.getId(), booker.getId());
+
+        assertThat(forOwner.getLastBooking().getId(), equalTo(last.getId()));
+        assertThat(forOwner.getNextBooking().getId(), equalTo(next.getId()));
+        assertThat(forBooker.getLastBooking(), nullValue());
+        assertThat(forBooker.getNextBooking(), nullValue());
+    }
+
+    @Test
+    void getAllItemsByOwner_shouldReadFreshSummaryByKey() {
+        User owner = createOwnerWithCommentedItems(3, 1);
+        bookingSummaryService.refresh(itemRepository.findIdsByOwnerId(owner.getId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        long statements = countStatements(() -> itemService.getAllItemsByOwner(owner.getId()));
+
+        assertThat(statements, lessThanOrEqualTo(3L));
+    }
+
+    @Test
+    void getItemAvailability_shouldMergeBusyIntervalsAndReturnGaps() {
+        User owner = userRepository.save(new User(null, "Георгий1", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "Георгий2", "booker@email.com"));
+        Item item = itemRepository.save(
+                Item.builder().name("Дрель").description("Простая").available(true).owner(owner).build());
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 10, 0, 0);
+        saveBooking(item, booker, from.minusDays(1), from.plusDays(1), BookingStatus.APPROVED);
+        saveBooking(item, booker, from.plusDays(3), from.plusDays(4), BookingStatus.WAITING);
+        saveBooking(item, booker, from.plusDays(4), from.plusDays(5), BookingStatus.APPROVED);
+        saveBooking(item, booker, from.plusDays(6), from.plusDays(7), BookingStatus.REJECTED);
+        saveBooking(item, booker, to.plusDays(1), to.plusDays(2), BookingStatus.APPROVED);
+
+        ItemAvailabilityDTO availability = itemService.getItemAvailability(item.getId(), from, to);
+
+        assertThat(availability.getBusy(), contains(
+                new ItemAvailabilityDTO.IntervalDTO(from, from.plusDays(1)),
+                new ItemAvailabilityDTO.IntervalDTO(from.plusDays(3), from.plusDays(5))));
+        assertThat(availability.getFree(), contains(
+                new ItemAvailabilityDTO.IntervalDTO(from.plusDays(1), from.plusDays(3)),
+                new ItemAvailabilityDTO.IntervalDTO(from.plusDays(5), to)));
+    }
+
+    @Test
+    void getOwnerAvailability_shouldCoverEveryOwnedItem() {
+        User owner = createOwnerWithCommentedItems(3, 0);
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 0, 0);
+
+        List<ItemAvailabilityDTO> availability = itemService.getOwnerAvailability(owner.getId(), from, to);
+
+        assertThat(availability, hasSize(3));
+        assertThat(availability.get(2).getBusy(), empty());
+        assertThat(availability.get(2).getFree(), contains(new ItemAvailabilityDTO.IntervalDTO(from, to)));
+    }
+
+    @Test
+    void getItemAvailability_whenRangeInverted_shouldThrow() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 2, 0, 0);
+
+        assertThrows(ValidationException.class,
+                () -> itemService.getItemAvailability(1L, from, from.minusDays(1)));
+    }
+
+    @Test
+    void getAllItemsByOwner_shouldLoadCommentsInConstantQueries() {
+        User owner = createOwnerWithCommentedItems(3, 3);
+
+        long statements = countStatements(() -> {
+            List<ItemResponseDTO> items = itemService.getAllItemsByOwner(owner.getId());
+
+            assertThat(items, hasSize(3));
+            assertThat(items.get(0).getComments(), hasSize(3));
+            assertThat(items.get(2).getComments().get(0).getAuthorName(), equalTo("Автор 1"));
+        });
+
+        assertThat(statements, lessThanOrEqualTo(4L));
+    }
+
+    @Test
+    void searchAvailableItems_shouldLoadCommentsInConstantQueries() {
+        createOwnerWithCommentedItems(4, 2);
+
+        long statements = countStatements(() -> {
+            List<ItemResponseDTO> items = itemService.searchAvailableItems("вещь", 0, 10);
+
+            assertThat(items, hasSize(4));
+            assertThat(items.get(3).getComments(), hasSize(2));
+        });
+
+        assertThat(statements, lessThanOrEqualTo(2L));
+    }
+
     @Test
     void searchAvailableItems_shouldReturn() {
         User owner = userRepository.save(new User(null, "Георгий", "owner@email.com"));
@@ -195,12 +352,82 @@ class ItemServiceImplIntegrationTest {
                         .build()
         );
 
-        List<ItemResponseDTO> foundItems = itemService.searchAvailableItems("дрель");
+        List<ItemResponseDTO> foundItems = itemService.searchAvailableItems("дрель", 0, 10);
 
         assertThat(foundItems, hasSize(1));
         assertThat(foundItems.get(0).getName(), equalTo("Дрель"));
     }
 
+    @Test
+    void searchAvailableItems_shouldMatchDescriptionAndSkipUnavailable() {
+        User owner = userRepository.save(new User(null, "Георгий", "owner@email.com"));
+        itemRepository.save(
+                Item.builder()
+                        .name("Шуруповерт")
+                        .description("Работает как ДРЕЛЬ")
+                        .available(true)
+                        .owner(owner)
+                        .build()
+        );
+        itemRepository.save(
+                Item.builder()
+                        .name("Дрель")
+                        .description("Сломанная")
+                        .available(false)
+                        .owner(owner)
+                        .build()
+        );
+
+        List<ItemResponseDTO> foundItems = itemService.searchAvailableItems("ДрЕлЬ", 0, 10);
+
+        assertThat(foundItems, hasSize(1));
+        assertThat(foundItems.get(0).getName(), equalTo("Шуруповерт"));
+    }
+
+    @Test
+    void searchAvailableItems_shouldReturnRequestedPage() {
+        User owner = userRepository.save(new User(null, "Георгий", "owner@email.com"));
+        for (int i = 1; i <= 5; i++) {
+            itemRepository.save(
+                    Item.builder()
+                            .name("Дрель " + i)
+                            .description("Простая")
+                            .available(true)
+                            .owner(owner)
+                            .build()
+            );
+        }
+
+        List<ItemResponseDTO> secondPage = itemService.searchAvailableItems("дрель", 2, 2);
+
+        assertThat(secondPage, hasSize(2));
+        assertThat(secondPage.get(0).getName(), equalTo("Дрель 3"));
+        assertThat(secondPage.get(1).getName(), equalTo("Дрель 4"));
+        assertThrows(ValidationException.class, () -> itemService.searchAvailableItems("дрель", -1, 2));
+    }
+
+    @Test
+    void streamAvailableItems_shouldEmitEveryMatchAcrossPages() {
+        User owner = userRepository.save(new User(null, "Георгий", "owner@email.com"));
+        for (int i = 1; i <= 101; i++) {
+            itemRepository.save(
+                    Item.builder()
+                            .name("Дрель " + i)
+                            .description("Простая")
+                            .available(true)
+                            .owner(owner)
+                            .build()
+            );
+        }
+
+        List<ItemResponseDTO> streamed = new ArrayList<>();
+        itemService.streamAvailableItems("дрель", streamed::add);
+
+        assertThat(streamed, hasSize(101));
+        assertThat(streamed.get(2).getName(), equalTo("Дрель 3"));
+        assertThat(streamed.get(100).getName(), equalTo("Дрель 101"));
+    }
+
     @Test
     void addComment_shouldSave() {
         User owner = userRepository.save(new User(null, "Георгий", "owner@email.com"));
@@ -230,6 +457,52 @@ class ItemServiceImplIntegrationTest {
         assertThat(commentRepository.findById(comment.getId()).isPresent(), is(true));
     }
 
+    @Test
+    void getItemById_shouldServeRepeatedReadsFromCacheUntilChanged() {
+        User owner = createOwnerWithCommentedItems(1, 2);
+        User booker = userRepository.save(new User(null, "Арендатор", "cached-booker@email.com"));
+        Long itemId = itemRepository.findByOwnerIdOrderByIdAsc(owner.getId()).get(0).getId();
+        saveBooking(itemRepository.findById(itemId).orElseThrow(), booker,
+                LocalDateTime.of(2005, 6, 17, 0, 0), LocalDateTime.of(2005, 6, 18, 0, 0), BookingStatus.APPROVED);
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        try {
+            itemService.getItemById(itemId, booker.getId());
+
+            long statements = countStatements(() -> {
+                ItemResponseDTO cached = itemService.getItemById(itemId, booker.getId());
+                assertThat(cached.getComments(), hasSize(2));
+                assertThat(cached.getLastBooking(), nullValue());
+            });
+            assertThat(statements, equalTo(0L));
+            assertThat(itemService.getItemEtag(itemId, booker.getId()), notNullValue());
+            assertThat(itemService.getItemEtag(itemId, owner.getId()), nullValue());
+
+            ItemUpdateDTO update = new ItemUpdateDTO();
+            update.setName("Новое имя");
+            itemService.updateItem(itemId, owner.getId(), update);
+            assertThat(itemService.getItemById(itemId, booker.getId()).getName(), equalTo("Новое имя"));
+
+            itemService.addComment(booker.getId(), itemId, "Свежий отзыв");
+            assertThat(itemService.getItemById(itemId, booker.getId()).getComments(), hasSize(3));
+            assertThat(itemService.getItemById(itemId, owner.getId()).getLastBooking(), notNullValue());
+        } finally {
+            deleteCommitted(owner, booker);
+        }
+    }
+
+    @Test
+    void getItemById_shouldNotCacheReadsOfUncommittedTransaction() {
+        User owner = createOwnerWithCommentedItems(1, 0);
+        Long itemId = itemRepository.findByOwnerIdOrderByIdAsc(owner.getId()).get(0).getId();
+        itemService.getItemById(itemId, owner.getId());
+
+        long statements = countStatements(() -> itemService.getItemById(itemId, owner.getId()));
+
+        assertThat(statements, greaterThan(0L));
+        assertThat(itemService.getItemEtag(itemId, null), nullValue());
+    }
+
     @Test
     void addComment_withoutBooking_shouldThrow() {
         User owner = userRepository.save(new User(null, "Георгий", "owner@email.com"));
@@ -246,4 +519,77 @@ class ItemServiceImplIntegrationTest {
         assertThrows(ValidationException.class,
                 () -> itemService.addComment(nonBooker.getId(), item.getId(), "Не должен добавиться"));
     }
+
+    private User createOwnerWithCommentedItems(int itemCount, int authorCount) {
+        User owner = userRepository.save(new User(null, "Владелец", "owner@email.com"));
+        List<User> authors = new ArrayList<>();
+        for (int i = 1; i <= authorCount; i++) {
+            authors.add(userRepository.save(new User(null, "Автор " + i, "author" + i + "@email.com")));
+        }
+        for (int i = 1; i <= itemCount; i++) {
+            Item item = itemRepository.save(
+                    Item.builder()
+                            .name("Вещь " + i)
+                            .description("Простая")
+                            .available(true)
+                            .owner(owner)
+                            .build()
+            );
+            for (User author : authors) {
+                commentRepository.save(
+                        Comment.builder()
+                                .text("Комментарий")
+                                .item(item)
+                                .author(author)
+                                .created(LocalDateTime.of(2005, 6, 19, 0, 0))
+                                .build()
+                );
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return owner;
+    }
+
+    private Booking saveBooking(Item item, User booker, LocalDateTime start, LocalDateTime end,
+                                BookingStatus status) {
+        return bookingRepository.save(
+                Booking.builder()
+                        .start(start)
+                        .end(end)
+                        .item(item)
+                        .booker(booker)
+                        .status(status)
+                        .build()
+        );
+    }
+
+    private void deleteCommitted(User owner, User booker) {
+        List<Long> userIds = new ArrayList<>(List.of(owner.getId(), booker.getId()));
+        userIds.addAll(jdbcTemplate.queryForList("SELECT author_id FROM comments WHERE item_id IN "
+                + "(SELECT id FROM items WHERE owner_id = ?)", Long.class, owner.getId()));
+        String items = "(SELECT id FROM items WHERE owner_id = " + owner.getId() + ")";
+        jdbcTemplate.update("DELETE FROM comments WHERE item_id IN " + items);
+        jdbcTemplate.update("DELETE FROM bookings WHERE item_id IN " + items);
+        jdbcTemplate.update("DELETE FROM item_booking_summaries WHERE item_id IN " + items);
+        jdbcTemplate.update("DELETE FROM items WHERE owner_id = ?", owner.getId());
+        userIds.stream().distinct().forEach(userId -> {
+            jdbcTemplate.update("DELETE FROM booking_counter_deltas WHERE user_id = ?", userId);
+            jdbcTemplate.update("DELETE FROM users WHERE id = ?", userId);
+        });
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        try {
+            action.run();
+            return statistics.getPrepareStatementCount();
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
 }
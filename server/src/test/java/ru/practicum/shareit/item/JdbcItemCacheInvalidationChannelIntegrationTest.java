@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class JdbcItemCacheInvalidationChannelIntegrationTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM item_cache_invalidations");
+    }
+
+    @Test
+    void publish_shouldReachOtherNodesOnce() {
+        JdbcItemCacheInvalidationChannel first = channel();
+        JdbcItemCacheInvalidationChannel second = channel();
+        List<Long> local = new CopyOnWriteArrayList<>();
+        List<Long> remote = new CopyOnWriteArrayList<>();
+        first.subscribe(local::add);
+        second.subscribe(remote::add);
+
+        first.publish(42L);
+
+        assertThat(local, contains(42L));
+        assertThat(remote, empty());
+        second.poll();
+        assertThat(remote, contains(42L));
+        second.poll();
+        assertThat(remote, contains(42L));
+    }
+
+    private JdbcItemCacheInvalidationChannel channel() {
+        return new JdbcItemCacheInvalidationChannel(jdbcTemplate, transactionManager,
+                Duration.ofSeconds(5), Duration.ofMinutes(10));
+    }
+}
@@ -8,6 +8,7 @@ import org.mockito.Captor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
@@ -146,6 +147,22 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.description", is("Нужна дрель")));
     }
 
+    @Test
+    void getRequestById_return304_whenEtagMatches() throws Exception {
+        when(itemRequestService.getRequestById(anyLong(), anyLong())).thenReturn(responseDto);
+
+        String etag = mockMvc.perform(get("/requests/1")
+                        .header(USER_HEADER, 1L))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/requests/1")
+                        .header(USER_HEADER, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getRequestById_return404_requestNotFound() throws Exception {
         when(itemRequestService.getRequestById(anyLong(), anyLong()))
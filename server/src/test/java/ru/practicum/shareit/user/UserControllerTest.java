@@ -9,6 +9,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.exception.ConflictException;
@@ -87,6 +88,43 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.name", is("Георгий")));
     }
 
+    @Test
+    void getUserById_notModified() throws Exception {
+        when(userService.getUserById(1L)).thenReturn(responseDto);
+
+        String etag = mockMvc.perform(get("/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        when(userService.getUserById(1L)).thenReturn(UserResponseDTO.builder()
+                .id(1L)
+                .name("Иван")
+                .email("user@email.com")
+                .build());
+
+        mockMvc.perform(get("/users/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.name", is("Иван")));
+    }
+
+    @Test
+    void getAllUsers_withoutEtag() throws Exception {
+        when(userService.getAllUsers()).thenReturn(List.of(responseDto));
+
+        mockMvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
     @Test
     void getUserById_notFound() throws Exception {
         when(userService.getUserById(99L)).thenThrow(new NotFoundException("User not found"));
@@ -7,9 +7,20 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.ItemBookingSummary;
+import ru.practicum.shareit.booking.ItemBookingSummaryService;
 import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemResponseDTO;
+import ru.practicum.shareit.item.ItemService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -20,10 +31,13 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @ActiveProfiles("test")
+@RecordApplicationEvents
 class UserServiceImplIntegrationTest {
 
     private final EntityManager em;
     private final UserService userService;
+    private final ItemService itemService;
+    private final ItemBookingSummaryService itemBookingSummaryService;
 
     @Test
     void createUser_savesUser() {
@@ -125,4 +139,71 @@ class UserServiceImplIntegrationTest {
         User deleted = em.find(User.class, user.getId());
         assertThat(deleted, nullValue());
     }
+
+    @Test
+    void deleteUser_publishesDeletionOfOwnedItems(@Autowired ApplicationEvents events) {
+        User owner = User.builder()
+                .name("Георгий")
+                .email("owner@email.com")
+                .build();
+        em.persist(owner);
+        Item item = Item.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .owner(owner)
+                .build();
+        em.persist(item);
+        em.flush();
+
+        userService.deleteUser(owner.getId());
+
+        List<ItemChangedEvent> published = events.stream(ItemChangedEvent.class).toList();
+        assertThat(published, contains(ItemChangedEvent.deleted(item.getId())));
+    }
+
+    @Test
+    void deleteUser_refreshesSummariesOfItemsTheyBooked() {
+        User owner = User.builder()
+                .name("Георгий")
+                .email("owner@email.com")
+                .build();
+        em.persist(owner);
+        User booker = User.builder()
+                .name("Анна")
+                .email("booker@email.com")
+                .build();
+        em.persist(booker);
+        Item item = Item.builder()
+                .name("Дрель")
+                .description("Ударная")
+                .available(true)
+                .owner(owner)
+                .build();
+        em.persist(item);
+        em.persist(Booking.builder()
+                .start(LocalDateTime.now().minusDays(3))
+                .end(LocalDateTime.now().minusDays(2))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        em.persist(Booking.builder()
+                .start(LocalDateTime.now().plusDays(2))
+                .end(LocalDateTime.now().plusDays(3))
+                .item(item)
+                .booker(booker)
+                .status(BookingStatus.APPROVED)
+                .build());
+        em.flush();
+        itemBookingSummaryService.refresh(item.getId());
+
+        userService.deleteUser(booker.getId());
+
+        ItemResponseDTO view = itemService.getItemById(item.getId(), owner.getId());
+        assertThat(view.getLastBooking(), nullValue());
+        assertThat(view.getNextBooking(), nullValue());
+        ItemBookingSummary summary = em.find(ItemBookingSummary.class, item.getId());
+        assertThat(summary.getApprovedCount(), equalTo(0L));
+    }
 }